@@ -0,0 +1,97 @@
+package hive.benchmark;
+
+import hive.Board;
+import hive.Coordinates;
+import hive.Piece;
+import hive.Player;
+import hive.pieces.BoardUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Board primitives on hives from the opening (5), through one (11) and two (22) full hands, up to
+ * a stress hive of 60 pieces. Pieces are queried either through the indexed {@link Board} values
+ * or through a plain list, which is what callers outside of Game pass in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardUtilsBenchmark {
+	private static final long SEED = 20140101L;
+
+	@Param({"5", "11", "22", "60"})
+	public int hiveSize;
+
+	@Param({"board", "list"})
+	public String pieces;
+
+	private Collection<Piece> collection;
+	private List<Piece> list;
+	private Piece borderPiece;
+	private Piece middlePiece;
+	private Coordinates occupied;
+	private Coordinates free;
+
+	@Setup
+	public void setUp() {
+		Board board = Hives.generate(hiveSize, SEED);
+		list = Lists.newArrayList(board.values());
+		collection = "board".equals(pieces) ? board.values() : list;
+
+		int[] slide = Hives.findSlide(board);
+		borderPiece = board.getTop(slide[0], slide[1]);
+		free = Coordinates.of(BoardUtils.neighbourX(slide[0], slide[2]),
+				BoardUtils.neighbourY(slide[0], slide[1], slide[2]), 0);
+		middlePiece = list.get(list.size() / 2);
+		occupied = middlePiece.getCoordinates();
+	}
+
+	@Benchmark
+	public boolean isOccupied() {
+		return BoardUtils.isOccupied(free, collection);
+	}
+
+	@Benchmark
+	public boolean isPathNotBlocked() {
+		return BoardUtils.isPathNotBlocked(borderPiece.getCoordinates(), free, collection);
+	}
+
+	@Benchmark
+	public boolean isOpenPath() {
+		return BoardUtils.isOpenPath(borderPiece.getCoordinates(), free, collection);
+	}
+
+	@Benchmark
+	public boolean isHiveEssential() {
+		return BoardUtils.isHiveEssential(middlePiece, collection);
+	}
+
+	@Benchmark
+	public Player getPlayerOnTop() {
+		return BoardUtils.getPlayerOnTop(occupied, collection);
+	}
+
+	@Benchmark
+	public boolean isPieceSurrounded() {
+		return BoardUtils.isPieceSurrounded(middlePiece, list);
+	}
+}
@@ -0,0 +1,112 @@
+package hive.benchmark;
+
+import hive.Board;
+import hive.Coordinates;
+import hive.Movement;
+import hive.Piece;
+import hive.PieceCharacteristics;
+import hive.Player;
+import hive.pieces.AntCharacteristics;
+import hive.pieces.AntMovement;
+import hive.pieces.BeetleCharacteristics;
+import hive.pieces.BeetleMovement;
+import hive.pieces.BoardUtils;
+import hive.pieces.GrasshopperCharacteristics;
+import hive.pieces.GrasshopperMovement;
+import hive.pieces.QueenCharacteristics;
+import hive.pieces.QueenMovement;
+import hive.pieces.SpiderCharacteristics;
+import hive.pieces.SpiderMovement;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Deterministic hives for benchmarks. Pieces follow the order of a player's hand (queen, 3 ants,
+ * 2 spiders, 3 grasshoppers, 2 beetles), players alternate and every piece is put next to a random
+ * piece already on the board. Beetles climb when they land on an occupied hex, so bigger hives
+ * also contain stacks.
+ */
+public class Hives {
+	private static final int HAND_SIZE = 11;
+
+	private Hives() {}
+
+	public static Board generate(int size, long seed) {
+		Player playerOne = new Player("one");
+		Player playerTwo = new Player("two");
+		Random random = new Random(seed);
+		Board board = new Board();
+		List<Piece> placed = Lists.newArrayList();
+		int id = 1;
+		while (placed.size() < size) {
+			Player player = id % 2 == 1 ? playerOne : playerTwo;
+			int handIndex = (id - 1) / 2 % HAND_SIZE;
+			int x = 0;
+			int y = 0;
+			if (!placed.isEmpty()) {
+				Coordinates neighbourOf = placed.get(random.nextInt(placed.size())).getCoordinates();
+				int direction = random.nextInt(BoardUtils.DIRECTIONS);
+				x = BoardUtils.neighbourX(neighbourOf.getX(), direction);
+				y = BoardUtils.neighbourY(neighbourOf.getX(), neighbourOf.getY(), direction);
+			}
+			int z = board.getMaxElevation(x, y) + 1;
+			if (z > 0 && !isBeetle(handIndex)) {
+				continue;
+			}
+			Piece piece = createPiece(id++, handIndex, player);
+			piece.setCoordinates(Coordinates.of(x, y, z));
+			board.put(piece.getId(), piece);
+			placed.add(piece);
+		}
+		return board;
+	}
+
+	/**
+	 * A piece on the ground at the border of the hive, together with a free neighbouring hex it
+	 * could slide to, as {x, y, direction}.
+	 */
+	public static int[] findSlide(Board board) {
+		for (Piece piece: board.values()) {
+			Coordinates coordinates = piece.getCoordinates();
+			if (coordinates.getZ() != 0 || board.getMaxElevation(coordinates.getX(), coordinates.getY()) != 0) {
+				continue;
+			}
+			for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+				if (!board.isOccupied(BoardUtils.neighbourX(coordinates.getX(), direction),
+						BoardUtils.neighbourY(coordinates.getX(), coordinates.getY(), direction))) {
+					return new int[] {coordinates.getX(), coordinates.getY(), direction};
+				}
+			}
+		}
+		throw new IllegalStateException("hive has no border");
+	}
+
+	private static boolean isBeetle(int handIndex) {
+		return handIndex >= 9;
+	}
+
+	private static Piece createPiece(int id, int handIndex, Player player) {
+		Movement movement;
+		PieceCharacteristics characteristics;
+		if (handIndex == 0) {
+			movement = QueenMovement.getInstance();
+			characteristics = QueenCharacteristics.getInstance();
+		} else if (handIndex <= 3) {
+			movement = AntMovement.getInstance();
+			characteristics = AntCharacteristics.getInstance();
+		} else if (handIndex <= 5) {
+			movement = SpiderMovement.getInstance();
+			characteristics = SpiderCharacteristics.getInstance();
+		} else if (handIndex <= 8) {
+			movement = GrasshopperMovement.getInstance();
+			characteristics = GrasshopperCharacteristics.getInstance();
+		} else {
+			movement = BeetleMovement.getInstance();
+			characteristics = BeetleCharacteristics.getInstance();
+		}
+		return new Piece(id, null, movement, characteristics, player);
+	}
+}
@@ -0,0 +1,117 @@
+package hive.benchmark;
+
+import hive.Board;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Movement;
+import hive.Piece;
+import hive.pieces.AntMovement;
+import hive.pieces.BeetleMovement;
+import hive.pieces.GrasshopperMovement;
+import hive.pieces.HiveGraph;
+import hive.pieces.QueenMovement;
+import hive.pieces.SpiderMovement;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Move generation and validation of a single piece of every type on the {@link Position} corpus.
+ * Out of the uncovered pieces of the benchmarked type the one with most moves is taken, pieces
+ * that are free to leave the hive first. isMoveOk checks one legal and one illegal move.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+
+	@Param
+	public Position position;
+
+	@Param({"queen", "ant", "spider", "grasshopper", "beetle"})
+	public String pieceType;
+
+	private Map<Integer, Piece> pieces;
+	private Movement movement;
+	private Piece piece;
+	private Move legalMove;
+	private Move illegalMove;
+
+	@Setup
+	public void setUp() {
+		Game game = position.replay();
+		pieces = game.getPieces();
+		movement = getMovement(pieceType);
+
+		Board board = Board.of(pieces);
+		Set<Piece> pinnedPieces = HiveGraph.getPinnedPieces(board);
+		int bestScore = -1;
+		for (Piece candidate: pieces.values()) {
+			Coordinates coordinates = candidate.getCoordinates();
+			if (candidate.getMovement() != movement || board.getTop(coordinates.getX(), coordinates.getY()) != candidate) {
+				continue;
+			}
+			int score = movement.getAvailableMoves(candidate, pieces).size();
+			if (!pinnedPieces.contains(candidate)) {
+				score += 1 << 16;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				piece = candidate;
+			}
+		}
+		if (piece == null) {
+			throw new IllegalStateException("no " + pieceType + " on top in " + position);
+		}
+
+		List<Move> availableMoves = movement.getAvailableMoves(piece, pieces);
+		legalMove = availableMoves.isEmpty() ? null : availableMoves.get(availableMoves.size() - 1);
+		illegalMove = new Move(piece.getId(), Coordinates.of(100, 100, 0));
+	}
+
+	@Benchmark
+	public List<Move> getAvailableMoves() {
+		return movement.getAvailableMoves(piece, pieces);
+	}
+
+	@Benchmark
+	public boolean isMoveOk() {
+		boolean illegalMoveOk = movement.isMoveOk(illegalMove, pieces);
+		return legalMove == null ? illegalMoveOk : illegalMoveOk ^ movement.isMoveOk(legalMove, pieces);
+	}
+
+	private static Movement getMovement(String pieceType) {
+		switch (pieceType) {
+		case "queen":
+			return QueenMovement.getInstance();
+		case "ant":
+			return AntMovement.getInstance();
+		case "spider":
+			return SpiderMovement.getInstance();
+		case "grasshopper":
+			return GrasshopperMovement.getInstance();
+		case "beetle":
+			return BeetleMovement.getInstance();
+		default:
+			throw new IllegalArgumentException(pieceType);
+		}
+	}
+}
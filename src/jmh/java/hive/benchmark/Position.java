@@ -0,0 +1,40 @@
+package hive.benchmark;
+
+import hive.Game;
+import hive.engine.Perft;
+
+/**
+ * Positions the movement benchmarks run on, as moves played from the start in the
+ * {@link Perft#replay(String)} format. Every position is a game still going on, with moves for the
+ * player to move and a piece of each of the five types on top of the board.
+ */
+public enum Position {
+	OPENING_1("8:0,0,0;19:1,-1,0;10:0,1,0;13:2,0,0;1:-1,1,0;12:2,1,0;4:-1,0,0;20:2,-1,0;6:-2,0,0;20:-2,1,0"),
+	OPENING_2("10:0,0,0;13:1,-1,0;5:-1,0,0;19:2,-1,0;1:-2,0,0;12:2,0,0;9:-2,1,0;19:-3,1,0;1:-1,-1,0;12:1,0,0"),
+	MIDGAME_1("8:0,0,0;16:0,1,0;2:-1,-1,0;13:1,1,0;1:0,-1,0;12:2,1,0;7:1,-2,0;18:-1,1,0;6:2,-1,0;19:-1,2,0;"
+			+ "6:0,-2,0;22:1,2,0;2:2,-1,0;22:0,2,0;2:2,0,0;21:3,1,0;10:0,-3,0;19:-1,0,0;11:1,-3,0;21:2,1,1;"
+			+ "9:2,-2,0;19:1,-1,0;2:3,1,0;14:0,3,0;2:2,2,0;21:1,1,1"),
+	MIDGAME_2("1:0,0,0;22:0,1,0;10:-1,-1,0;16:-1,1,0;7:0,-1,0;16:1,0,0;9:0,-2,0;12:2,0,0;2:1,-2,0;17:-1,1,0;"
+			+ "5:2,-2,0;18:1,1,0;5:3,0,0;18:1,-1,0;3:4,0,0;19:1,1,0;4:-2,-1,0;15:-2,1,0;4:2,-1,0;20:-3,0,0;"
+			+ "2:2,1,0;21:0,2,0;2:2,2,0;14:-3,1,0;6:2,-2,0;22:0,0,1"),
+	ENDGAME_1("6:0,0,0;19:-1,0,0;4:0,-1,0;18:-2,0,0;1:1,-2,0;12:-3,0,0;1:0,-2,0;21:-3,1,0;11:1,-3,0;22:-4,2,0;"
+			+ "2:1,-4,0;22:-3,1,1;9:1,-5,0;13:-3,-1,0;9:1,-2,0;13:0,-3,0;5:-1,-2,0;14:-3,-1,0;7:-2,-2,0;20:-4,1,0;"
+			+ "2:-4,0,0;14:0,-4,0;2:-3,-1,0;16:-1,1,0;10:-2,-3,0;17:-4,2,0;2:-4,0,0;14:2,-2,0;8:-4,-1,0;15:-5,2,0;"
+			+ "3:-2,-4,0;14:2,-1,0;3:2,0,0;20:-1,-1,0;3:-3,-4,0;15:0,-4,0;3:1,-4,0;15:2,-2,0;3:-3,-1,0;15:-5,0,0;"
+			+ "3:-2,-1,0;14:-4,-2,0;11:0,-2,1;13:1,0,0;10:-2,-2,1;15:0,-3,0;9:-1,-3,0;15:1,-2,0;3:-3,-1,0;14:1,-1,0"),
+	ENDGAME_2("2:0,0,0;21:0,1,0;2:1,0,0;18:0,2,0;6:2,1,0;20:0,3,0;1:2,0,0;12:-1,0,0;3:1,-1,0;16:1,2,0;"
+			+ "3:0,0,0;17:2,3,0;5:1,-1,0;14:-1,3,0;11:0,-1,0;14:3,0,0;4:-1,-2,0;19:4,0,0;9:0,-2,0;13:3,2,0;"
+			+ "4:2,4,0;22:4,1,0;8:0,-3,0;15:0,4,0;10:-1,-4,0;15:-1,-5,0;7:1,-4,0;13:-1,-1,0;4:-1,1,0;15:2,-1,0;"
+			+ "4:-2,0,0;22:3,0,1;4:2,-3,0;20:2,2,0;4:-2,0,0;22:2,0,1;4:-1,1,0;21:1,0,1;4:-2,0,0;21:0,1,0;"
+			+ "4:-1,2,0;21:1,0,1;4:-2,-3,0;13:1,-2,0;4:4,-1,0;13:2,-2,0;4:3,-2,0;13:-1,-1,0;4:-1,1,0;21:2,0,2");
+
+	private final String moves;
+
+	private Position(String moves) {
+		this.moves = moves;
+	}
+
+	public Game replay() {
+		return Perft.replay(moves);
+	}
+}
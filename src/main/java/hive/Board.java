@@ -0,0 +1,399 @@
+package hive;
+
+import hive.pieces.BoardUtils;
+import hive.pieces.SlideTable;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Pieces on board keyed by id, additionally indexed by hex (x, y) so that
+ * occupancy and stack queries do not need to scan all pieces. Hex indexes are
+ * kept in {@link IntIntMap}s keyed by {@link #key(int, int)}, so queries do not box.
+ * Pieces on board have to be moved with {@link #movePiece(Piece, Coordinates)}
+ * to keep the index up to date.
+ */
+public class Board extends ForwardingMap<Integer, Piece> {
+	private final Map<Integer, Piece> pieces = Maps.newHashMap();
+	// per occupied hex: index + 1 of its stack in the pool, emptied stacks are reused
+	private final IntIntMap stackIndexes = new IntIntMap();
+	private final List<List<Piece>> stackPool = Lists.newArrayList();
+	private int[] freeStacks = new int[16];
+	private int freeStacksCount;
+	private final Values values = new Values();
+	// per hex: bit set for every direction with a piece on the ground next to it
+	private final IntIntMap neighbourMasks = new IntIntMap();
+	// per hex: number of neighbouring stacks topped by any piece and by each player's pieces
+	private final IntIntMap topsAround = new IntIntMap();
+	private final Map<Player, IntIntMap> playerTopsAround = Maps.newIdentityHashMap();
+	// per player: hexes of the frontier mapped to 1
+	private final Map<Player, IntIntMap> placementFrontiers = Maps.newIdentityHashMap();
+	private int version;
+	private final SlideTable slideTable = new SlideTable(this);
+
+	public Board() {}
+
+	public Board(Map<Integer, Piece> pieces) {
+		putAll(pieces);
+	}
+
+	public static Board of(Map<Integer, Piece> pieces) {
+		if (pieces instanceof Board) {
+			return (Board) pieces;
+		}
+		return new Board(pieces);
+	}
+
+	public static Board of(Collection<Piece> pieces) {
+		if (pieces instanceof Values) {
+			return ((Values) pieces).board();
+		}
+		Board board = new Board();
+		int key = 0;
+		for (Piece piece: pieces) {
+			board.put(key++, piece);
+		}
+		return board;
+	}
+
+	public static int key(int x, int y) {
+		return (x << 16) ^ (y & 0xFFFF);
+	}
+
+	public static int keyX(int key) {
+		return key >> 16;
+	}
+
+	public static int keyY(int key) {
+		return (short) key;
+	}
+
+	@Override
+	protected Map<Integer, Piece> delegate() {
+		return pieces;
+	}
+
+	@Override
+	public Piece put(Integer key, Piece piece) {
+		Piece previous = pieces.put(key, piece);
+		if (previous != null) {
+			unindex(previous);
+		}
+		index(piece);
+		version++;
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends Integer, ? extends Piece> map) {
+		standardPutAll(map);
+	}
+
+	@Override
+	public Piece remove(Object key) {
+		Piece removed = pieces.remove(key);
+		if (removed != null) {
+			unindex(removed);
+			version++;
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		pieces.clear();
+		stackIndexes.clear();
+		stackPool.clear();
+		freeStacksCount = 0;
+		neighbourMasks.clear();
+		topsAround.clear();
+		playerTopsAround.clear();
+		placementFrontiers.clear();
+		version++;
+	}
+
+	@Override
+	public Set<Integer> keySet() {
+		return Collections.unmodifiableSet(pieces.keySet());
+	}
+
+	@Override
+	public Collection<Piece> values() {
+		return values;
+	}
+
+	@Override
+	public Set<Entry<Integer, Piece>> entrySet() {
+		return Collections.unmodifiableSet(pieces.entrySet());
+	}
+
+	public void movePiece(Piece piece, Coordinates destination) {
+		unindex(piece);
+		piece.setCoordinates(destination);
+		index(piece);
+		version++;
+	}
+
+	public boolean isOccupied(int x, int y) {
+		return stackIndexes.containsKey(key(x, y));
+	}
+
+	public boolean isOccupied(int x, int y, int z) {
+		List<Piece> stack = getStack(key(x, y));
+		if (stack == null) {
+			return false;
+		}
+		for (Piece piece: stack) {
+			if (piece.getCoordinates().getZ() == z) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Piece getTop(int x, int y) {
+		List<Piece> stack = getStack(key(x, y));
+		if (stack == null) {
+			return null;
+		}
+		return stack.get(stack.size() - 1);
+	}
+
+	public int getMaxElevation(int x, int y) {
+		Piece top = getTop(x, y);
+		if (top == null) {
+			return -1;
+		}
+		return top.getCoordinates().getZ();
+	}
+
+	/**
+	 * Six bit mask of the hex's neighbours that have a piece on the ground, bit n standing for
+	 * direction n of {@link BoardUtils}. Kept up to date on every change of the board.
+	 */
+	public int getNeighbourMask(int x, int y) {
+		return neighbourMasks.get(key(x, y));
+	}
+
+	/**
+	 * Number of pieces stacked on the hex.
+	 */
+	public int getHeight(int x, int y) {
+		List<Piece> stack = getStack(key(x, y));
+		return stack == null ? 0 : stack.size();
+	}
+
+	/**
+	 * Pieces covered by the given one, from the bottom of the stack up.
+	 */
+	public List<Piece> getPiecesUnder(Piece piece) {
+		Coordinates coordinates = piece.getCoordinates();
+		List<Piece> stack = coordinates == null ? null : getStack(key(coordinates.getX(), coordinates.getY()));
+		if (stack != null) {
+			for (int i = 0; i < stack.size(); i++) {
+				if (stack.get(i) == piece) {
+					return Lists.newArrayList(stack.subList(0, i));
+				}
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Empty hexes, as {@link #key(int, int)}, where the player may put a new piece: next to a
+	 * stack topped by the player's piece and not next to any stack topped by somebody else.
+	 * Kept up to date on every change of the board.
+	 */
+	public Set<Integer> getPlacementFrontier(Player player) {
+		IntIntMap frontier = placementFrontiers.get(player);
+		if (frontier == null) {
+			return Collections.emptySet();
+		}
+		return frontier.keySet();
+	}
+
+	public Set<Integer> getOccupiedHexes() {
+		return stackIndexes.keySet();
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Lookup of slides around the hive from the neighbour masks, shared by all ground pieces.
+	 */
+	public SlideTable getSlideTable() {
+		return slideTable;
+	}
+
+	public static boolean isIndexed(Collection<Piece> pieces) {
+		return pieces instanceof Values;
+	}
+
+	private void index(Piece piece) {
+		Coordinates coordinates = piece.getCoordinates();
+		if (coordinates == null) {
+			return;
+		}
+		int key = key(coordinates.getX(), coordinates.getY());
+		List<Piece> stack = getStack(key);
+		if (stack == null) {
+			stack = addStack(key);
+		}
+		Piece previousTop = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+		if (coordinates.getZ() == 0 && !hasGroundPiece(stack)) {
+			onGroundChanged(key);
+		}
+		// keeps stack ordered from the bottom to the top
+		int position = stack.size();
+		while (position > 0 && stack.get(position - 1).getCoordinates().getZ() > coordinates.getZ()) {
+			position--;
+		}
+		stack.add(position, piece);
+		onTopChanged(key, previousTop, stack.get(stack.size() - 1));
+	}
+
+	private void unindex(Piece piece) {
+		Coordinates coordinates = piece.getCoordinates();
+		if (coordinates == null) {
+			return;
+		}
+		int key = key(coordinates.getX(), coordinates.getY());
+		List<Piece> stack = getStack(key);
+		if (stack == null) {
+			return;
+		}
+		Piece previousTop = stack.get(stack.size() - 1);
+		for (int i = 0; i < stack.size(); i++) {
+			if (stack.get(i) == piece) {
+				stack.remove(i);
+				break;
+			}
+		}
+		if (coordinates.getZ() == 0 && !hasGroundPiece(stack)) {
+			onGroundChanged(key);
+		}
+		if (stack.isEmpty()) {
+			removeStack(key);
+			onTopChanged(key, previousTop, null);
+		} else {
+			onTopChanged(key, previousTop, stack.get(stack.size() - 1));
+		}
+	}
+
+	private List<Piece> getStack(int key) {
+		int index = stackIndexes.get(key);
+		return index == 0 ? null : stackPool.get(index - 1);
+	}
+
+	private List<Piece> addStack(int key) {
+		int index;
+		if (freeStacksCount > 0) {
+			index = freeStacks[--freeStacksCount];
+		} else {
+			index = stackPool.size();
+			stackPool.add(Lists.<Piece>newArrayListWithCapacity(2));
+		}
+		stackIndexes.set(key, index + 1);
+		return stackPool.get(index);
+	}
+
+	private void removeStack(int key) {
+		int index = stackIndexes.get(key) - 1;
+		stackIndexes.set(key, 0);
+		if (freeStacksCount == freeStacks.length) {
+			freeStacks = Arrays.copyOf(freeStacks, 2 * freeStacks.length);
+		}
+		freeStacks[freeStacksCount++] = index;
+	}
+
+	private boolean hasGroundPiece(List<Piece> stack) {
+		return !stack.isEmpty() && stack.get(0).getCoordinates().getZ() == 0;
+	}
+
+	// the hex got its first or lost its last piece on the ground
+	private void onGroundChanged(int key) {
+		int x = keyX(key);
+		int y = keyY(key);
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			int neighbourKey = key(BoardUtils.neighbourX(x, direction), BoardUtils.neighbourY(x, y, direction));
+			// the hex lies in the opposite direction as seen from its neighbour
+			int bit = 1 << ((direction + BoardUtils.DIRECTIONS / 2) % BoardUtils.DIRECTIONS);
+			neighbourMasks.set(neighbourKey, neighbourMasks.get(neighbourKey) ^ bit);
+		}
+	}
+
+	private void onTopChanged(int key, Piece previousTop, Piece top) {
+		if (previousTop == top) {
+			return;
+		}
+		if (previousTop == null || top == null || previousTop.getPlayer() != top.getPlayer()) {
+			int x = keyX(key);
+			int y = keyY(key);
+			for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+				int neighbourKey = key(BoardUtils.neighbourX(x, direction), BoardUtils.neighbourY(x, y, direction));
+				if (previousTop != null) {
+					addTopAround(neighbourKey, previousTop.getPlayer(), -1);
+				}
+				if (top != null) {
+					addTopAround(neighbourKey, top.getPlayer(), 1);
+				}
+				updatePlacement(neighbourKey);
+			}
+		}
+		updatePlacement(key);
+	}
+
+	private void addTopAround(int key, Player player, int delta) {
+		IntIntMap ownTopsAround = playerTopsAround.get(player);
+		if (ownTopsAround == null) {
+			ownTopsAround = new IntIntMap();
+			playerTopsAround.put(player, ownTopsAround);
+			placementFrontiers.put(player, new IntIntMap());
+		}
+		ownTopsAround.add(key, delta);
+		topsAround.add(key, delta);
+	}
+
+	private void updatePlacement(int key) {
+		int allTops = topsAround.get(key);
+		boolean isEmpty = !stackIndexes.containsKey(key);
+		for (Map.Entry<Player, IntIntMap> entry: playerTopsAround.entrySet()) {
+			int ownTops = entry.getValue().get(key);
+			boolean onFrontier = isEmpty && ownTops != 0 && ownTops == allTops;
+			placementFrontiers.get(entry.getKey()).set(key, onFrontier ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Read only view of pieces on board that remembers its board, so that
+	 * methods accepting a plain collection of pieces can still use the index.
+	 */
+	private class Values extends AbstractCollection<Piece> {
+		@Override
+		public Iterator<Piece> iterator() {
+			return Iterators.unmodifiableIterator(pieces.values().iterator());
+		}
+
+		@Override
+		public int size() {
+			return pieces.size();
+		}
+
+		private Board board() {
+			return Board.this;
+		}
+	}
+}
@@ -2,19 +2,86 @@ package hive;
 
 import com.google.common.base.Objects;
 
-public class Coordinates {
-	private int x;
-	private int y;
-	private int z;
-	
-	public Coordinates() {}
-	
+/**
+ * Immutable hex coordinates. Hexes close to the origin are interned,
+ * so {@link #of(int, int, int)} does not allocate for typical boards.
+ */
+public final class Coordinates {
+	private static final int CACHE_RADIUS = 16;
+	private static final int CACHE_SIDE = 2 * CACHE_RADIUS + 1;
+	private static final int CACHE_HEIGHT = 5;
+	private static final Coordinates[] CACHE = new Coordinates[CACHE_SIDE * CACHE_SIDE * CACHE_HEIGHT];
+
+	private static final int BITS = 21;
+	private static final long MASK = (1L << BITS) - 1;
+
+	static {
+		for (int x = -CACHE_RADIUS; x <= CACHE_RADIUS; x++) {
+			for (int y = -CACHE_RADIUS; y <= CACHE_RADIUS; y++) {
+				for (int z = 0; z < CACHE_HEIGHT; z++) {
+					CACHE[cacheIndex(x, y, z)] = new Coordinates(x, y, z);
+				}
+			}
+		}
+	}
+
+	private final int x;
+	private final int y;
+	private final int z;
+
+	public Coordinates() {
+		this(0, 0, 0);
+	}
+
 	public Coordinates(int x, int y, int z) {
-		this.setX(x);
-		this.setY(y);
-		this.setZ(z);
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	public static Coordinates of(int x, int y, int z) {
+		if (isCached(x, y, z)) {
+			return CACHE[cacheIndex(x, y, z)];
+		}
+		return new Coordinates(x, y, z);
+	}
+
+	/**
+	 * Lossless for every coordinate in range [-2^20, 2^20).
+	 */
+	public static long pack(int x, int y, int z) {
+		return ((x & MASK) << (2 * BITS)) | ((y & MASK) << BITS) | (z & MASK);
+	}
+
+	public static Coordinates fromLong(long packed) {
+		return of(unpackX(packed), unpackY(packed), unpackZ(packed));
+	}
+
+	public static int unpackX(long packed) {
+		return (int) ((packed << (64 - 3 * BITS)) >> (64 - BITS));
+	}
+
+	public static int unpackY(long packed) {
+		return (int) ((packed << (64 - 2 * BITS)) >> (64 - BITS));
 	}
-	
+
+	public static int unpackZ(long packed) {
+		return (int) ((packed << (64 - BITS)) >> (64 - BITS));
+	}
+
+	public long toLong() {
+		return pack(x, y, z);
+	}
+
+	private static boolean isCached(int x, int y, int z) {
+		return x >= -CACHE_RADIUS && x <= CACHE_RADIUS && y >= -CACHE_RADIUS && y <= CACHE_RADIUS
+				&& z >= 0 && z < CACHE_HEIGHT;
+	}
+
+	private static int cacheIndex(int x, int y, int z) {
+		return ((x + CACHE_RADIUS) * CACHE_SIDE + y + CACHE_RADIUS) * CACHE_HEIGHT + z;
+	}
+
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(this)
@@ -23,7 +90,7 @@ public class Coordinates {
 				.add("z", z)
 				.toString();
 	}
-	
+
 	@Override
 	public boolean equals(Object obj) {
 		if (!(obj instanceof Coordinates)) {
@@ -33,27 +100,20 @@ public class Coordinates {
 		return (x == toCheck.x && y == toCheck.y && z == toCheck.z);
 	}
 
-	public int getX() {
-		return x;
+	@Override
+	public int hashCode() {
+		return (x * 31 + y) * 31 + z;
 	}
 
-	public void setX(int x) {
-		this.x = x;
+	public int getX() {
+		return x;
 	}
 
 	public int getY() {
 		return y;
 	}
 
-	public void setY(int y) {
-		this.y = y;
-	}
-
 	public int getZ() {
 		return z;
 	}
-
-	public void setZ(int z) {
-		this.z = z;
-	}
 }
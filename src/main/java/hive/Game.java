@@ -1,43 +1,67 @@
 package hive;
 
 import static hive.HiveExceptionCode.*;
-import hive.pieces.AntCharacteristics;
-import hive.pieces.AntMovement;
-import hive.pieces.BeetleCharacteristics;
-import hive.pieces.BeetleMovement;
 import hive.pieces.BoardUtils;
-import hive.pieces.GrasshopperCharacteristics;
-import hive.pieces.GrasshopperMovement;
-import hive.pieces.QueenCharacteristics;
-import hive.pieces.QueenMovement;
-import hive.pieces.SpiderCharacteristics;
-import hive.pieces.SpiderMovement;
-
-import java.util.Collection;
+import hive.pieces.HiveGraph;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 public class Game {
 	private final int gameId;
 	private Player currentPlayer;
 	private Player playerOne;
 	private Player playerTwo;
-	private Map<Integer, Piece> pieces;
+	private Board pieces;
 	private List<Move> moves;
+	private Deque<MoveRecord> undoStack;
+	// hash of pieces on board and in hands, side to move is added on read
+	private long positionHash;
+	private int[][] handCounts;
+	private Board positionHashBoard;
+	private int positionHashBoardVersion;
 	private int currentMaxPieceId;
+	// all pieces of the game, piece with id n being at index n - 1
+	private Piece[] piecesByIndex;
+	// whether the board holds only pieces from piecesByIndex, checked again when the board was
+	// changed behind the game's back
+	private boolean ownPiecesOnly;
+	private Board ownPiecesBoard;
+	private int ownPiecesBoardVersion;
+	private Set<Piece> pinnedPieces;
+	private Board pinnedPiecesBoard;
+	private int pinnedPiecesBoardVersion;
+	private List<Move> availableMoves;
+	private Board availableMovesBoard;
+	private int availableMovesBoardVersion;
+	private int availableMovesMovesCount;
+	private Player availableMovesPlayer;
+	private final List<MoveListener> moveListeners = Lists.newArrayList();
 	
 	private final static Logger LOGGER = Logger.getLogger(Game.class.getName()); 
 	//TODO: gameHistory poprzez snapshoty sytuacji na planszy po kolejnych turach
 	
 	public Game(int gameId, Player playerOne, Player playerTwo) {
+		this(gameId, playerOne, playerTwo, true);
+	}
+
+	// copies are made without logging
+	private Game(int gameId, Player playerOne, Player playerTwo, boolean logged) {
 		createGame (playerOne, playerTwo);
 		this.gameId = gameId;
+		if (logged) {
+			LOGGER.info("Game created. Game: " + this.toString());
+		}
 	}
 	
 	private void createGame (Player playerOne, Player playerTwo) {
@@ -45,16 +69,16 @@ public class Game {
 			throw new HiveException(NULL_PLAYER);
 		}
 		currentMaxPieceId = 1;
+		piecesByIndex = new Piece[2 * PieceType.PIECES_PER_PLAYER];
 		this.playerOne = playerOne;
 		this.playerTwo = playerTwo;
 		currentPlayer = playerOne;
-		pieces = Maps.newHashMap();
+		pieces = new Board();
 		moves = Lists.newArrayList();
+		undoStack = new ArrayDeque<MoveRecord>();
 		
 		preparePlayer(playerOne);
 		preparePlayer(playerTwo);
-		
-		LOGGER.info("Game created. Game: " + this.toString());
 	}
 	
 	private void preparePlayer(Player player) {
@@ -63,24 +87,16 @@ public class Game {
 
 	private Map<Integer, Piece> generateBasicPieceSet(Player player) {
 		Map<Integer, Piece> result = new HashMap<Integer, Piece>();
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, QueenMovement.getInstance(), QueenCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, AntMovement.getInstance(), AntCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, AntMovement.getInstance(), AntCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, AntMovement.getInstance(), AntCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, SpiderMovement.getInstance(), SpiderCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, SpiderMovement.getInstance(), SpiderCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, GrasshopperMovement.getInstance(), GrasshopperCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, GrasshopperMovement.getInstance(), GrasshopperCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, GrasshopperMovement.getInstance(), GrasshopperCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, BeetleMovement.getInstance(), BeetleCharacteristics.getInstance(), player));
-		addPieceToMapAndIncrementCurrentMaxPieceId(result, new Piece(currentMaxPieceId, null, BeetleMovement.getInstance(), BeetleCharacteristics.getInstance(), player));
+		for (PieceType type: PieceType.values()) {
+			for (int i = 0; i < type.getCount(); i++) {
+				Piece piece = new Piece(currentMaxPieceId, null, type.getMovement(), type.getPieceCharacteristics(), player);
+				result.put(currentMaxPieceId, piece);
+				piecesByIndex[currentMaxPieceId - 1] = piece;
+				currentMaxPieceId++;
+			}
+		}
 		return result;
 	}
-
-	private void addPieceToMapAndIncrementCurrentMaxPieceId(Map<Integer, Piece> map, Piece piece) {
-		map.put(currentMaxPieceId, piece);
-		currentMaxPieceId++;
-	}
 	
 	public void movePiece(int pieceId, Coordinates destination) {
 		LOGGER.info("Move piece called. PieceId: " + pieceId + ", destination: " + destination + ", current game status: " + this.toString());
@@ -103,28 +119,208 @@ public class Game {
 		if (!piece.isMoveOk(move, pieces)) {
 			throw new HiveException(NOT_AVAILABLE_MOVE);
 		}
-		moves.add(move);
-		piece.setCoordinates(destination);
-		changeCurrentPlayer();
+		applyMove(piece, move);
 	}
 
 	protected boolean isPieceHiveEssential(Piece piece) {
-		return BoardUtils.isHiveEssential(piece, pieces.values());
+		return getPinnedPieces().contains(piece);
+	}
+
+	protected Set<Piece> getPinnedPieces() {
+		if (pinnedPiecesBoard != pieces || pinnedPiecesBoardVersion != pieces.getVersion()) {
+			pinnedPieces = HiveGraph.getPinnedPieces(pieces);
+			pinnedPiecesBoard = pieces;
+			pinnedPiecesBoardVersion = pieces.getVersion();
+		}
+		return pinnedPieces;
 	}
 
 	private void processPut(Piece piece, Coordinates destination) {
 		Move move = new Move(piece.getId(), destination);
 		if (getAvailablePuts(piece).contains(move)) {
-			piece.setCoordinates(destination);
+			applyMove(piece, move);
+		} else {
+			throw new HiveException(NOT_AVAILABLE_PUT);
+		}
+	}
+
+	/**
+	 * Makes a move without validating it, e.g. one taken from {@link #getAvailableMoves()}.
+	 * It can be taken back with {@link #unmakeMove()}.
+	 */
+	public void makeMove(Move move) {
+		Piece piece = findPieceInGame(move.getPieceId());
+		if (piece == null) {
+			throw new HiveException(PIECE_DOESNT_EXIST);
+		}
+		applyMove(piece, move);
+	}
+
+	/**
+	 * Copy of the game with players and pieces of its own, matched by id, made without logging
+	 * or validating anything. Moves made through this game can be taken back on the copy as well,
+	 * move listeners are not copied.
+	 */
+	public Game copy() {
+		Game copy = new Game(gameId, new Player(playerOne.getName()), new Player(playerTwo.getName()), false);
+		for (Piece piece: pieces.values()) {
+			Piece copied = copy.piecesByIndex[piece.getId() - 1];
+			copied.setCoordinates(piece.getCoordinates());
+			copied.getPlayer().getPiecesInHand().remove(copied.getId());
+			copy.pieces.put(copied.getId(), copied);
+		}
+		copy.moves.addAll(moves);
+		copy.currentPlayer = currentPlayer == playerOne ? copy.playerOne : copy.playerTwo;
+		// records are pushed from the oldest one
+		for (Iterator<MoveRecord> records = undoStack.descendingIterator(); records.hasNext();) {
+			MoveRecord record = records.next();
+			Player previousPlayer = record.previousPlayer == playerOne ? copy.playerOne : copy.playerTwo;
+			copy.undoStack.push(new MoveRecord(copy.piecesByIndex[record.piece.getId() - 1], record.previousCoordinates,
+					previousPlayer, record.previousHash));
+		}
+		return copy;
+	}
+
+	/**
+	 * Takes back the last move made with {@link #makeMove(Move)} or {@link #movePiece(int, Coordinates)}.
+	 */
+	public void unmakeMove() {
+		if (undoStack.isEmpty()) {
+			throw new HiveException(NO_MOVE_TO_UNMAKE);
+		}
+		MoveRecord record = undoStack.pop();
+		Piece piece = record.piece;
+		updatePositionHash();
+		hasOwnPiecesOnly();
+		moves.remove(moves.size() - 1);
+		Coordinates from = piece.getCoordinates();
+		if (record.previousCoordinates == null) {
+			hashPieceLeavingBoard(piece);
+			pieces.remove(piece.getId());
+			piece.setCoordinates(null);
+			piece.getPlayer().getPiecesInHand().put(piece.getId(), piece);
+		} else {
+			hashPieceMove(piece, record.previousCoordinates);
+			pieces.movePiece(piece, record.previousCoordinates);
+		}
+		positionHashBoardVersion = pieces.getVersion();
+		ownPiecesBoardVersion = pieces.getVersion();
+		currentPlayer = record.previousPlayer;
+		notifyMoveListeners(piece, from, record.previousCoordinates);
+	}
+
+	private void applyMove(Piece piece, Move move) {
+		updatePositionHash();
+		hasOwnPiecesOnly();
+		Coordinates from = piece.getCoordinates();
+		undoStack.push(new MoveRecord(piece, from, currentPlayer, getHash()));
+		if (isPut(piece)) {
+			piece.setCoordinates(move.getEnd());
+			hashPieceEnteringBoard(piece);
 			pieces.put(piece.getId(), piece);
 			piece.getPlayer().getPiecesInHand().remove(piece.getId());
-			moves.add(move);
-			changeCurrentPlayer();
 		} else {
-			throw new HiveException(NOT_AVAILABLE_PUT);
+			hashPieceMove(piece, move.getEnd());
+			pieces.movePiece(piece, move.getEnd());
+		}
+		positionHashBoardVersion = pieces.getVersion();
+		ownPiecesBoardVersion = pieces.getVersion();
+		moves.add(move);
+		changeCurrentPlayer();
+		notifyMoveListeners(piece, from, move.getEnd());
+	}
+
+	private void notifyMoveListeners(Piece piece, Coordinates from, Coordinates to) {
+		for (MoveListener moveListener: moveListeners) {
+			moveListener.pieceMoved(piece, from, to);
+		}
+	}
+
+	public void addMoveListener(MoveListener moveListener) {
+		moveListeners.add(moveListener);
+	}
+
+	public void removeMoveListener(MoveListener moveListener) {
+		moveListeners.remove(moveListener);
+	}
+
+	/**
+	 * Zobrist hash of the position: pieces on board with their stacks, hands and side to move.
+	 */
+	public long getHash() {
+		updatePositionHash();
+		return currentPlayer == playerOne ? positionHash : positionHash ^ Zobrist.SIDE_TO_MOVE;
+	}
+
+	/**
+	 * Number of earlier positions of this game (made through this instance) equal to the current one.
+	 */
+	public int getRepetitionCount() {
+		long hash = getHash();
+		int count = 0;
+		for (MoveRecord record: undoStack) {
+			if (record.previousHash == hash) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// recomputes the hash from scratch only when board was changed behind the game's back
+	private void updatePositionHash() {
+		if (positionHashBoard == pieces && positionHashBoardVersion == pieces.getVersion()) {
+			return;
+		}
+		handCounts = new int[2][Zobrist.PIECE_TYPES];
+		long hash = 0;
+		for (Piece piece: pieces.values()) {
+			hash ^= Zobrist.pieceKey(Zobrist.typeOf(piece), ownerOf(piece), piece.getCoordinates());
+		}
+		countPiecesInHand(playerOne);
+		countPiecesInHand(playerTwo);
+		for (int owner = 0; owner < 2; owner++) {
+			for (int type = 0; type < Zobrist.PIECE_TYPES; type++) {
+				hash ^= Zobrist.handKey(type, owner, handCounts[owner][type]);
+			}
+		}
+		positionHash = hash;
+		positionHashBoard = pieces;
+		positionHashBoardVersion = pieces.getVersion();
+	}
+
+	private void countPiecesInHand(Player player) {
+		for (Piece piece: player.getPiecesInHand().values()) {
+			handCounts[ownerOf(piece)][Zobrist.typeOf(piece)]++;
 		}
 	}
 
+	private void hashPieceEnteringBoard(Piece piece) {
+		int type = Zobrist.typeOf(piece);
+		int owner = ownerOf(piece);
+		int count = handCounts[owner][type]--;
+		positionHash ^= Zobrist.handKey(type, owner, count) ^ Zobrist.handKey(type, owner, count - 1)
+				^ Zobrist.pieceKey(type, owner, piece.getCoordinates());
+	}
+
+	private void hashPieceLeavingBoard(Piece piece) {
+		int type = Zobrist.typeOf(piece);
+		int owner = ownerOf(piece);
+		int count = handCounts[owner][type]++;
+		positionHash ^= Zobrist.handKey(type, owner, count) ^ Zobrist.handKey(type, owner, count + 1)
+				^ Zobrist.pieceKey(type, owner, piece.getCoordinates());
+	}
+
+	private void hashPieceMove(Piece piece, Coordinates destination) {
+		int type = Zobrist.typeOf(piece);
+		int owner = ownerOf(piece);
+		positionHash ^= Zobrist.pieceKey(type, owner, piece.getCoordinates()) 
+				^ Zobrist.pieceKey(type, owner, destination);
+	}
+
+	private int ownerOf(Piece piece) {
+		return piece.getPlayer() == playerOne ? 0 : 1;
+	}
+
 	private void validateMove(Piece piece, Coordinates destination) {
 		if (piece == null) {
 			throw new HiveException(PIECE_DOESNT_EXIST);
@@ -138,6 +334,12 @@ public class Game {
 	}
 	
 	private Piece findPieceInGame(int pieceId) {
+		if (hasOwnPiecesOnly()) {
+			if (pieceId < 1 || pieceId > piecesByIndex.length) {
+				return null;
+			}
+			return piecesByIndex[pieceId - 1];
+		}
 		if (pieces.containsKey(pieceId)) {
 			return pieces.get(pieceId);
 		}
@@ -150,6 +352,22 @@ public class Game {
 		return null;
 	}
 
+	private boolean hasOwnPiecesOnly() {
+		if (ownPiecesBoard == pieces && ownPiecesBoardVersion == pieces.getVersion()) {
+			return ownPiecesOnly;
+		}
+		ownPiecesOnly = true;
+		for (Map.Entry<Integer, Piece> entry: pieces.entrySet()) {
+			int pieceId = entry.getKey();
+			if (pieceId < 1 || pieceId > piecesByIndex.length || piecesByIndex[pieceId - 1] != entry.getValue()) {
+				ownPiecesOnly = false;
+			}
+		}
+		ownPiecesBoard = pieces;
+		ownPiecesBoardVersion = pieces.getVersion();
+		return ownPiecesOnly;
+	}
+
 	private void changeCurrentPlayer() {
 		if (currentPlayer == playerOne) {
 			currentPlayer = playerTwo;
@@ -173,7 +391,7 @@ public class Game {
 		List<Move> availablePuts = Lists.newArrayList();
 		//1st move - 0x0
 		if (moves.size() == 0 && pieces.size() == 0) {
-			availablePuts.add(new Move(piece.getId(), new Coordinates(0, 0, 0)));
+			availablePuts.add(new Move(piece.getId(), Coordinates.of(0, 0, 0)));
 			return availablePuts;
 		}
 		//2nd move
@@ -191,59 +409,57 @@ public class Game {
 		}
 		//7th move and 8th move (both players queens need to be on board after those)
 		if (moves.size() == 6 || moves.size() == 7) {
-			if (!isQueenOnBoard(piece.getPlayer())) {
-				if (!(piece.getMovement() instanceof QueenMovement) ||
-					!(piece.getPieceCharacteristics() instanceof QueenCharacteristics)) {
-					return availablePuts;
-				}
+			if (piece.getType() != PieceType.QUEEN && !isQueenOnBoard(piece.getPlayer())) {
+				return availablePuts;
 			}
 		}
 		//normal checking
-		for (Piece pieceToCheck: pieces.values()) {
-			if (isPieceOnTopBelongToOtherPlayer(piece, pieceToCheck)) {
-				continue;
-			}
-			List<Coordinates> potentialCoordinates = 
-					BoardUtils.getSurroundingCoordinatesWithZZero(pieceToCheck.getCoordinates());
-			for (Coordinates coordinates: potentialCoordinates) {
-				if (isOkForPiecePut(coordinates, pieces.values(), piece.getPlayer())) {
-					Move move = new Move(piece.getId(), coordinates);
-					if (!availablePuts.contains(move)) {
-						availablePuts.add(move);
-					}
-				}
-			}
+		for (Integer key: pieces.getPlacementFrontier(piece.getPlayer())) {
+			availablePuts.add(new Move(piece.getId(), Coordinates.of(Board.keyX(key), Board.keyY(key), 0)));
 		}
 		return availablePuts;
 	}
 
-	private boolean isPieceOnTopBelongToOtherPlayer(Piece piece, Piece pieceToCheck) {
-		return BoardUtils.getPlayerOnTop(pieceToCheck.getCoordinates(), pieces.values()) != piece.getPlayer();
+	private boolean isQueenOnBoard(Player player) {
+		return getQueenOnBoard(player) != null;
 	}
-	
-	private boolean isOkForPiecePut(Coordinates coordinates, Collection<Piece> pieces,
-			Player player) {
-		if (BoardUtils.isOccupiedWithoutZ(coordinates, pieces)) {
-			return false;
+
+	/**
+	 * The player's queen when it is on board, null otherwise.
+	 */
+	public Piece getQueenOnBoard(Player player) {
+		if (hasOwnPiecesOnly()) {
+			// queens come first in the pieces of each player
+			Piece queen = piecesByIndex[player == playerOne ? 0 : PieceType.PIECES_PER_PLAYER];
+			return queen.getCoordinates() == null ? null : queen;
 		}
-		for (Piece piece: pieces) {
-			if (BoardUtils.areNeighbours(coordinates, piece.getCoordinates())) {
-				if (player != BoardUtils.getPlayerOnTop(piece.getCoordinates(), pieces)) {
-					return false;
-				}
+		for (Piece piece: pieces.values()) {
+			if (piece.getPlayer() == player && piece.getType() == PieceType.QUEEN) {
+				return piece;
 			}
 		}
-		return true;
+		return null;
 	}
 
-	private boolean isQueenOnBoard(Player player) {
-		for (Piece piece: pieces.values()) {
-			if (piece.getPlayer() == player && piece.getMovement() instanceof QueenMovement &&
-						piece.getPieceCharacteristics() instanceof QueenCharacteristics) {
-				return true;
-			}
+	/**
+	 * Whether the player's queen is on board with all six neighbouring hexes occupied, which
+	 * loses the game.
+	 */
+	public boolean isQueenSurrounded(Player player) {
+		Piece queen = getQueenOnBoard(player);
+		if (queen == null) {
+			return false;
 		}
-		return false;
+		Coordinates coordinates = queen.getCoordinates();
+		return pieces.getNeighbourMask(coordinates.getX(), coordinates.getY()) == (1 << BoardUtils.DIRECTIONS) - 1;
+	}
+
+	/**
+	 * Number of pieces of the given type the player still has in hand.
+	 */
+	public int getPiecesInHandCount(Player player, PieceType type) {
+		updatePositionHash();
+		return handCounts[player == playerOne ? 0 : 1][type.ordinal()];
 	}
 
 	@Override
@@ -261,8 +477,54 @@ public class Game {
 				.toString();
 	}
 	
-	public Move getAvailableMoves(Piece piece) {
-		return null;
+	/**
+	 * All puts and moves the current player can make. Only pieces on top of their stacks
+	 * are moved. The list is computed once per position and reused until the position changes.
+	 */
+	public List<Move> getAvailableMoves() {
+		if (availableMoves == null || availableMovesBoard != pieces 
+				|| availableMovesBoardVersion != pieces.getVersion()
+				|| availableMovesMovesCount != moves.size() 
+				|| availableMovesPlayer != currentPlayer) {
+			availableMoves = Collections.unmodifiableList(generateAvailableMoves());
+			availableMovesBoard = pieces;
+			availableMovesBoardVersion = pieces.getVersion();
+			availableMovesMovesCount = moves.size();
+			availableMovesPlayer = currentPlayer;
+		}
+		return availableMoves;
+	}
+
+	public List<Move> getAvailableMoves(Piece piece) {
+		if (piece == null) {
+			throw new HiveException(NULL_PIECE);
+		}
+		List<Move> pieceMoves = Lists.newArrayList();
+		for (Move move: getAvailableMoves()) {
+			if (move.getPieceId() == piece.getId()) {
+				pieceMoves.add(move);
+			}
+		}
+		return pieceMoves;
+	}
+
+	private List<Move> generateAvailableMoves() {
+		List<Move> result = Lists.newArrayList();
+		for (Piece piece: currentPlayer.getPiecesInHand().values()) {
+			result.addAll(getAvailablePuts(piece));
+		}
+		Set<Piece> pinned = getPinnedPieces();
+		for (Piece piece: pieces.values()) {
+			if (piece.getPlayer() != currentPlayer || piece.getMovement() == null || pinned.contains(piece)) {
+				continue;
+			}
+			Coordinates coordinates = piece.getCoordinates();
+			if (pieces.getTop(coordinates.getX(), coordinates.getY()) != piece) {
+				continue;
+			}
+			result.addAll(piece.getAvailableMoves(piece, pieces));
+		}
+		return result;
 	}
 
 	public Player getCurrentPlayer() {
@@ -297,15 +559,34 @@ public class Game {
 		this.moves = moves;
 	}
 
-	public Map<Integer, Piece> getPieces() {
+	public Board getPieces() {
 		return pieces;
 	}
 
+	/**
+	 * A {@link Board} is kept as it is, any other map is copied into a new board: later changes
+	 * of that map are not seen by the game, which has to be changed through {@link #getPieces()}.
+	 */
 	public void setPieces(Map<Integer, Piece> pieces) {
-		this.pieces = pieces;
+		this.pieces = Board.of(pieces);
 	}
 
 	public int getGameId() {
 		return gameId;
 	}
+
+	private static class MoveRecord {
+		private final Piece piece;
+		// null when the piece was put from hand
+		private final Coordinates previousCoordinates;
+		private final Player previousPlayer;
+		private final long previousHash;
+
+		private MoveRecord(Piece piece, Coordinates previousCoordinates, Player previousPlayer, long previousHash) {
+			this.piece = piece;
+			this.previousCoordinates = previousCoordinates;
+			this.previousPlayer = previousPlayer;
+			this.previousHash = previousHash;
+		}
+	}
 }
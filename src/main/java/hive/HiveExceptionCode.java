@@ -13,5 +13,6 @@ public enum HiveExceptionCode {
 	NOT_THIS_PLAYER_TURN,
 	NOT_NULL_PIECE_COORDINATES,
 	PIECE_NOT_ON_BOARD,
-	NULL_COORDINATES
+	NULL_COORDINATES,
+	NO_MOVE_TO_UNMAKE
 }
@@ -0,0 +1,181 @@
+package hive;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of int keys to int values in open addressed arrays, so that lookups and updates do not box.
+ * A missing key reads as 0 and setting a key to 0 removes it, which suits the counts and masks of
+ * {@link Board}.
+ */
+final class IntIntMap {
+	private static final int MIN_CAPACITY = 16;
+
+	private int[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int mask;
+	private int size;
+	private final Set<Integer> keySet = new KeySet();
+
+	IntIntMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	int get(int key) {
+		int slot = find(key);
+		return slot < 0 ? 0 : values[slot];
+	}
+
+	boolean containsKey(int key) {
+		return find(key) >= 0;
+	}
+
+	void set(int key, int value) {
+		int slot = find(key);
+		if (value == 0) {
+			if (slot >= 0) {
+				remove(slot);
+			}
+			return;
+		}
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+		if (2 * (size + 1) > keys.length) {
+			resize(2 * keys.length);
+		}
+		insert(key, value);
+	}
+
+	void add(int key, int delta) {
+		set(key, get(key) + delta);
+	}
+
+	int size() {
+		return size;
+	}
+
+	void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Read only view of the keys, boxing them only when iterated.
+	 */
+	Set<Integer> keySet() {
+		return keySet;
+	}
+
+	private static int hash(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ hash >>> 16;
+	}
+
+	private int find(int key) {
+		for (int slot = hash(key) & mask; used[slot]; slot = slot + 1 & mask) {
+			if (keys[slot] == key) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private void insert(int key, int value) {
+		int slot = hash(key) & mask;
+		while (used[slot]) {
+			slot = slot + 1 & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		used[slot] = true;
+		size++;
+	}
+
+	// shifts back the entries following the removed one that would not be found past the gap
+	private void remove(int slot) {
+		used[slot] = false;
+		size--;
+		for (int next = slot + 1 & mask; used[next]; next = next + 1 & mask) {
+			int home = hash(keys[next]) & mask;
+			if ((next - home & mask) >= (next - slot & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				used[slot] = true;
+				used[next] = false;
+				slot = next;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldUsed[slot]) {
+				insert(oldKeys[slot], oldValues[slot]);
+			}
+		}
+	}
+
+	private class KeySet extends AbstractSet<Integer> {
+		@Override
+		public boolean contains(Object key) {
+			return key instanceof Integer && containsKey((Integer) key);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				private int slot = nextUsed(0);
+
+				@Override
+				public boolean hasNext() {
+					return slot < used.length;
+				}
+
+				@Override
+				public Integer next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int key = keys[slot];
+					slot = nextUsed(slot + 1);
+					return key;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		private int nextUsed(int slot) {
+			while (slot < used.length && !used[slot]) {
+				slot++;
+			}
+			return slot;
+		}
+	}
+}
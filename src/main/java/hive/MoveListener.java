@@ -0,0 +1,14 @@
+package hive;
+
+/**
+ * Told about every piece moved by a {@link Game}, including moves taken back, after the board
+ * has been changed.
+ */
+public interface MoveListener {
+
+	/**
+	 * @param from coordinates before the move, null when the piece was put from hand
+	 * @param to coordinates after the move, null when the piece went back to hand
+	 */
+	void pieceMoved(Piece piece, Coordinates from, Coordinates to);
+}
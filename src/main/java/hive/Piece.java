@@ -9,6 +9,7 @@ public class Piece implements Movement, PieceCharacteristics {
 	
 	private final int id;
 	private Movement movement;
+	private PieceType type;
 	private PieceCharacteristics pieceCharacteristics;
 	private Coordinates coordinates;
 	private Player player;
@@ -20,7 +21,7 @@ public class Piece implements Movement, PieceCharacteristics {
 	public Piece(int id, int x, int y, int z, Movement movement, 
 			PieceCharacteristics pieceCharacteristics, Player player) {
 		this(id, null, movement, pieceCharacteristics, player);
-		Coordinates coordinates = new Coordinates(x, y, z);
+		Coordinates coordinates = Coordinates.of(x, y, z);
 		this.coordinates = coordinates;
 	}
 	
@@ -29,6 +30,7 @@ public class Piece implements Movement, PieceCharacteristics {
 		this.id = id;
 		this.coordinates = coordinates;
 		this.movement = movement;
+		this.type = PieceType.of(movement);
 		this.pieceCharacteristics = pieceCharacteristics;
 		this.player = player;
 	}
@@ -71,6 +73,14 @@ public class Piece implements Movement, PieceCharacteristics {
 
 	public void setMovement(Movement movement) {
 		this.movement = movement;
+		this.type = PieceType.of(movement);
+	}
+
+	/**
+	 * Type of the piece following its movement, null when the movement is not one of the basic set.
+	 */
+	public PieceType getType() {
+		return type;
 	}
 
 	public PieceCharacteristics getPieceCharacteristics() {
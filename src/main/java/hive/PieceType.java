@@ -0,0 +1,62 @@
+package hive;
+
+import hive.pieces.AntCharacteristics;
+import hive.pieces.AntMovement;
+import hive.pieces.BeetleCharacteristics;
+import hive.pieces.BeetleMovement;
+import hive.pieces.GrasshopperCharacteristics;
+import hive.pieces.GrasshopperMovement;
+import hive.pieces.QueenCharacteristics;
+import hive.pieces.QueenMovement;
+import hive.pieces.SpiderCharacteristics;
+import hive.pieces.SpiderMovement;
+
+/**
+ * Kinds of pieces in the basic set, in the order the pieces of each player are numbered.
+ */
+public enum PieceType {
+	QUEEN(1, QueenMovement.getInstance(), QueenCharacteristics.getInstance()),
+	ANT(3, AntMovement.getInstance(), AntCharacteristics.getInstance()),
+	SPIDER(2, SpiderMovement.getInstance(), SpiderCharacteristics.getInstance()),
+	GRASSHOPPER(3, GrasshopperMovement.getInstance(), GrasshopperCharacteristics.getInstance()),
+	BEETLE(2, BeetleMovement.getInstance(), BeetleCharacteristics.getInstance());
+
+	public static final int PIECES_PER_PLAYER = 11;
+
+	private final int count;
+	private final Movement movement;
+	private final PieceCharacteristics pieceCharacteristics;
+
+	private PieceType(int count, Movement movement, PieceCharacteristics pieceCharacteristics) {
+		this.count = count;
+		this.movement = movement;
+		this.pieceCharacteristics = pieceCharacteristics;
+	}
+
+	/**
+	 * Type moving like the given movement, null for movements outside the basic set.
+	 */
+	public static PieceType of(Movement movement) {
+		for (PieceType type: values()) {
+			if (type.movement == movement) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Number of pieces of this type each player has.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public Movement getMovement() {
+		return movement;
+	}
+
+	public PieceCharacteristics getPieceCharacteristics() {
+		return pieceCharacteristics;
+	}
+}
@@ -0,0 +1,43 @@
+package hive;
+
+/**
+ * Zobrist keys for Hive positions. The board is unbounded, so instead of tables of random
+ * numbers every key is derived by mixing its (type, owner, x, y, z) tuple with a 64 bit
+ * finalizer. Keys are therefore stable between runs and cost O(1) to compute.
+ */
+public final class Zobrist {
+	// types of the basic set and one shared by all other pieces
+	public static final int PIECE_TYPES = PieceType.values().length + 1;
+	public static final long SIDE_TO_MOVE = mix(0x5DEECE66DL);
+
+	private static final long PIECE_SEED = 0x9E3779B97F4A7C15L;
+	private static final long HAND_SEED = 0xC2B2AE3D27D4EB4FL;
+
+	private Zobrist() {}
+
+	public static long pieceKey(int type, int owner, int x, int y, int z) {
+		return mix(mix(PIECE_SEED ^ Coordinates.pack(x, y, z)) + (type << 1 | owner));
+	}
+
+	public static long pieceKey(int type, int owner, Coordinates coordinates) {
+		return pieceKey(type, owner, coordinates.getX(), coordinates.getY(), coordinates.getZ());
+	}
+
+	public static long handKey(int type, int owner, int count) {
+		return mix(HAND_SEED ^ (count << 4 | type << 1 | owner));
+	}
+
+	/**
+	 * Type index of the piece, pieces with unknown movement share the last index.
+	 */
+	public static int typeOf(Piece piece) {
+		PieceType type = piece.getType();
+		return type == null ? PIECE_TYPES - 1 : type.ordinal();
+	}
+
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
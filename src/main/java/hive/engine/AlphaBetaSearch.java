@@ -0,0 +1,245 @@
+package hive.engine;
+
+import hive.Game;
+import hive.HiveException;
+import hive.Move;
+import hive.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Negamax search with alpha-beta pruning and iterative deepening. Moves are made and taken back
+ * on the searched game itself, which is left as it was when the search ends, so a game must not be
+ * used by anybody else during its search. A search instance keeps per-search buffers and serves one
+ * search at a time; concurrent games each need their own instance.
+ * <p>
+ * The search stops at the depth limit, or when the node or time budget runs out, in which case the
+ * result of the last completed depth is returned. Given a {@link TranspositionTable}, positions
+ * reached again by other move orders are cut off or searched starting from the move found best
+ * before; the table can be shared with other searches. A search also stops, as soon as it notices,
+ * when its cancellation flag is set by any thread; the flag is never cleared by the search.
+ */
+public class AlphaBetaSearch {
+	public static final int MAX_SCORE = 1000000;
+	// scores from here up are won games, higher for quicker wins
+	public static final int WIN_SCORE = MAX_SCORE - 1000;
+	public static final int MAX_DEPTH = 64;
+
+	// how often, in nodes, the clock is read
+	private static final int TIME_CHECK_INTERVAL = 1024;
+
+	private final Evaluator evaluator;
+	private final TranspositionTable transpositionTable;
+	private final AtomicBoolean cancelled;
+	// triangular table: principal variation found at each ply, from that ply on
+	private final Move[][] principalVariations = new Move[MAX_DEPTH + 1][MAX_DEPTH + 1];
+	private final int[] principalVariationLengths = new int[MAX_DEPTH + 1];
+	// principal variation of the previous iteration, searched first
+	private Move[] previousVariation = new Move[0];
+	// index of the root move searched first after the principal variation and table moves
+	private int rootMoveOffset;
+	private Game game;
+	private long nodes;
+	private long maxNodes;
+	private long deadline;
+	private boolean stopped;
+
+	public AlphaBetaSearch(Evaluator evaluator) {
+		this(evaluator, null);
+	}
+
+	public AlphaBetaSearch(Evaluator evaluator, TranspositionTable transpositionTable) {
+		this(evaluator, transpositionTable, new AtomicBoolean());
+	}
+
+	public AlphaBetaSearch(Evaluator evaluator, TranspositionTable transpositionTable, AtomicBoolean cancelled) {
+		this.evaluator = evaluator;
+		this.transpositionTable = transpositionTable;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * Makes the search go through the root moves from the one at the given index on, wrapping
+	 * around, e.g. so that parallel searches of one position do not all start with the same move.
+	 */
+	public void setRootMoveOffset(int rootMoveOffset) {
+		this.rootMoveOffset = rootMoveOffset;
+	}
+
+	/**
+	 * Searches the game to at most maxDepth moves, visiting at most maxNodes positions in at most
+	 * maxMillis milliseconds (values below 1 mean no limit). Only completed iterations are
+	 * answered: when the first one is cut off, the result has depth 0 and no moves.
+	 */
+	public SearchResult search(Game game, int maxDepth, long maxNodes, long maxMillis) {
+		return search(game, 1, maxDepth, maxNodes, maxMillis);
+	}
+
+	/**
+	 * Like {@link #search(Game, int, long, long)}, starting the iterations at the given depth.
+	 */
+	public SearchResult search(Game game, int firstDepth, int maxDepth, long maxNodes, long maxMillis) {
+		long start = System.nanoTime();
+		this.game = game;
+		this.nodes = 0;
+		this.maxNodes = maxNodes > 0 ? maxNodes : Long.MAX_VALUE;
+		this.deadline = maxMillis > 0 ? start + maxMillis * 1000000L : Long.MAX_VALUE;
+		this.stopped = false;
+		previousVariation = new Move[0];
+
+		List<Move> variation = Lists.newArrayList();
+		int score = 0;
+		int depth = 0;
+		for (int iteration = Math.max(1, firstDepth); iteration <= Math.min(maxDepth, MAX_DEPTH); iteration++) {
+			int iterationScore = negamax(iteration, 0, -MAX_SCORE, MAX_SCORE);
+			if (stopped) {
+				break;
+			}
+			variation = Arrays.asList(Arrays.copyOf(principalVariations[0], principalVariationLengths[0]));
+			score = iterationScore;
+			depth = iteration;
+			previousVariation = variation.toArray(new Move[variation.size()]);
+			if (Math.abs(score) >= WIN_SCORE) {
+				break;
+			}
+		}
+		this.game = null;
+		return new SearchResult(variation, score, depth, nodes, System.nanoTime() - start);
+	}
+
+	private int negamax(int depth, int ply, int alpha, int beta) {
+		principalVariationLengths[ply] = 0;
+		nodes++;
+		if (nodes >= maxNodes || nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline || cancelled.get()) {
+			stopped = true;
+		}
+
+		Player player = game.getCurrentPlayer();
+		Player opponent = player == game.getPlayerOne() ? game.getPlayerTwo() : game.getPlayerOne();
+		boolean lost = game.isQueenSurrounded(player);
+		boolean won = game.isQueenSurrounded(opponent);
+		if (lost || won) {
+			return lost == won ? 0 : (won ? MAX_SCORE - ply : -MAX_SCORE + ply);
+		}
+		if (depth == 0 || ply == MAX_DEPTH) {
+			return evaluator.evaluate(game);
+		}
+
+		int originalAlpha = alpha;
+		long hash = 0;
+		Move tableMove = null;
+		if (transpositionTable != null) {
+			hash = game.getHash();
+			long entry = transpositionTable.probe(hash);
+			if (entry != TranspositionTable.NO_ENTRY) {
+				int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if (ply > 0 && TranspositionTable.getDepth(entry) >= depth && (bound == TranspositionTable.EXACT
+						|| bound == TranspositionTable.LOWER_BOUND && score >= beta
+						|| bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+					return score;
+				}
+				int move = TranspositionTable.getMove(entry);
+				// a move of another position sharing the hash is mostly told apart by its put flag
+				// before it is looked for among the available moves
+				if (move != TranspositionTable.NO_MOVE && Moves.isPut(move) == isInHand(Moves.getPieceId(move))) {
+					tableMove = Moves.toMove(move);
+				}
+			}
+		}
+
+		List<Move> availableMoves = game.getAvailableMoves();
+		if (availableMoves.isEmpty()) {
+			// passing is not a move of the game, the position is scored as it is
+			return evaluator.evaluate(game);
+		}
+		Move firstMove = ply < previousVariation.length ? previousVariation[ply] : null;
+		if (firstMove == null || !availableMoves.contains(firstMove)) {
+			firstMove = tableMove != null && availableMoves.contains(tableMove) ? tableMove : null;
+		}
+		boolean searched = false;
+		for (int i = firstMove == null ? 0 : -1; i < availableMoves.size(); i++) {
+			Move move = i < 0 ? firstMove : availableMoves.get(ply == 0 ? (i + rootMoveOffset) % availableMoves.size() : i);
+			if (i >= 0 && move.equals(firstMove)) {
+				continue;
+			}
+			if (stopped && searched) {
+				break;
+			}
+			game.makeMove(move);
+			int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+			game.unmakeMove();
+			if (!searched || score > alpha) {
+				searched = true;
+				if (score > alpha) {
+					alpha = score;
+				}
+				updatePrincipalVariation(ply, move);
+			}
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		if (transpositionTable != null && !stopped) {
+			int bound = alpha <= originalAlpha ? TranspositionTable.UPPER_BOUND
+					: alpha >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+			int bestMove = TranspositionTable.NO_MOVE;
+			if (alpha > originalAlpha) {
+				Move move = principalVariations[ply][0];
+				bestMove = Moves.encode(move, isInHand(move.getPieceId()));
+			}
+			transpositionTable.store(hash, depth, bound, toTableScore(alpha, ply), bestMove);
+		}
+		return alpha;
+	}
+
+	private boolean isInHand(int pieceId) {
+		return !game.getPieces().containsKey(pieceId);
+	}
+
+	// won and lost scores are kept in the table as distances from the stored position
+	private static int toTableScore(int score, int ply) {
+		if (score >= WIN_SCORE) {
+			return score + ply;
+		}
+		return score <= -WIN_SCORE ? score - ply : score;
+	}
+
+	private static int fromTableScore(int score, int ply) {
+		if (score >= WIN_SCORE) {
+			return score - ply;
+		}
+		return score <= -WIN_SCORE ? score + ply : score;
+	}
+
+	private void updatePrincipalVariation(int ply, Move move) {
+		Move[] variation = principalVariations[ply];
+		variation[0] = move;
+		int childLength = principalVariationLengths[ply + 1];
+		System.arraycopy(principalVariations[ply + 1], 0, variation, 1, childLength);
+		principalVariationLengths[ply] = childLength + 1;
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.out.println("Usage: AlphaBetaSearch <millis> [moves]");
+			return;
+		}
+		long millis = Long.parseLong(args[0]);
+		Game game;
+		try {
+			game = Perft.replay(args.length > 1 ? args[1] : "");
+		} catch (HiveException ex) {
+			System.out.println("Illegal move in position: " + ex.getHiveExceptionCode());
+			return;
+		}
+		TranspositionTable transpositionTable = new TranspositionTable(1 << 20);
+		System.out.println(new AlphaBetaSearch(IncrementalEvaluator.attachTo(game), transpositionTable).search(game, MAX_DEPTH, 0, millis));
+		System.out.println("table hit rate: " + transpositionTable.getHitRate() + ", occupancy: "
+				+ transpositionTable.getOccupancy());
+	}
+}
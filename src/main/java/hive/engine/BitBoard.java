@@ -0,0 +1,748 @@
+package hive.engine;
+
+import static hive.HiveExceptionCode.NO_MOVE_TO_UNMAKE;
+import static hive.HiveExceptionCode.PIECE_DOESNT_EXIST;
+import hive.Coordinates;
+import hive.Game;
+import hive.HiveException;
+import hive.Move;
+import hive.Piece;
+import hive.PieceType;
+import hive.Player;
+import hive.pieces.BoardUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Position kept in bitboards over a window of 32 x 32 hexes, a compact alternative to
+ * {@link hive.Board} for search and self play. Hex (x, y) of the window is bit
+ * {@code 32 * (x - originX) + (y - originY)}, so every long holds an even column in its low half
+ * and the following odd column in its high half, which keeps neighbour shifts of the odd-q layout
+ * of {@link BoardUtils} down to one shift and mask per column parity. There is a bitboard for each
+ * player and height level.
+ * <p>
+ * The window is moved back onto the hive whenever a piece comes close to its edge; the hive is at
+ * most 22 hexes across, so hexes next to it and the hexes flanking their slides always fit.
+ * Moves follow the rules of {@link Game#getAvailableMoves()} and use the same piece ids and
+ * coordinates, so positions can be taken from and given back to a {@link Game}. The rules are
+ * written again over bitboards rather than shared with {@code hive.pieces}: a change of the rules
+ * has to be made in both places, BitBoardTest compares the moves of both on the benchmark
+ * positions.
+ */
+public class BitBoard {
+	public static final int SIZE = 32;
+	// the ground and four beetles on top of it
+	public static final int LEVELS = 5;
+	public static final int PIECES = 2 * PieceType.PIECES_PER_PLAYER;
+	// returned by randomMove when the player cannot move, never a valid move
+	public static final int NO_MOVE = -1;
+
+	private static final int HEXES = SIZE * SIZE;
+	private static final int WORDS = HEXES / Long.SIZE;
+	private static final int MARGIN = 2;
+	private static final int SPIDER_SLIDES = 3;
+	private static final long EVEN_COLUMNS = 0x00000000FFFFFFFFL;
+	private static final long ODD_COLUMNS = ~EVEN_COLUMNS;
+	private static final long BOTTOM_ROW = 0x0000000100000001L;
+	private static final long TOP_ROW = 0x8000000080000000L;
+	// change of the hex index when stepping in each direction, for even and odd columns
+	private static final int[] EVEN_SHIFTS = {1, 32, 31, -1, -33, -32};
+	private static final int[] ODD_SHIFTS = {1, 33, 32, -1, -32, -31};
+	// hexes a step lands on after wrapping over the top or the bottom of a column
+	private static final long[] EVEN_WRAPS = {BOTTOM_ROW, 0, TOP_ROW, TOP_ROW, TOP_ROW, 0};
+	private static final long[] ODD_WRAPS = {BOTTOM_ROW, BOTTOM_ROW, 0, TOP_ROW, 0, BOTTOM_ROW};
+	private static final int ALL_PIECES = -1;
+
+	private final String[] playerNames;
+	private final long[][][] occupancy = new long[2][LEVELS][WORDS];
+	private final byte[] heights = new byte[HEXES];
+	private final PieceType[] types = new PieceType[PIECES];
+	private final int[] owners = new int[PIECES];
+	private final boolean[] onBoard = new boolean[PIECES];
+	private final int[] xs = new int[PIECES];
+	private final int[] ys = new int[PIECES];
+	private final int[] levels = new int[PIECES];
+	private int originX = -SIZE / 2;
+	private int originY = -SIZE / 2;
+	private int piecesOnBoard;
+	private int currentPlayer;
+	// all moves played, including the ones taken from the game
+	private final MoveList moves = new MoveList();
+	// moved piece with the coordinates it had before, level -1 meaning it was in hand
+	private int[] undoStack = new int[64];
+	private int undoSize;
+
+	// buffers reused by move generation
+	private final long[] ground = new long[WORDS];
+	private final long[][] occupiedNeighbours = new long[BoardUtils.DIRECTIONS][WORDS];
+	private final long[][] slides = new long[BoardUtils.DIRECTIONS][WORDS];
+	private final long[][] tops = new long[2][WORDS];
+	private final long[] frontier = new long[WORDS];
+	private final long[] reached = new long[WORDS];
+	private final long[] next = new long[WORDS];
+	private final long[] sliding = new long[WORDS];
+	private final long[] pinned = new long[WORDS];
+	private final int[] discovery = new int[HEXES];
+	private final int[] low = new int[HEXES];
+	private final int[] parent = new int[HEXES];
+	private final int[] nextDirection = new int[HEXES];
+	private final int[] visited = new int[PIECES];
+	private final int[] path = new int[SPIDER_SLIDES + 1];
+	private final int[] candidates = new int[PIECES];
+
+	private BitBoard(String playerOneName, String playerTwoName) {
+		playerNames = new String[] {playerOneName, playerTwoName};
+	}
+
+	public static BitBoard of(Game game) {
+		Player playerOne = game.getPlayerOne();
+		BitBoard board = new BitBoard(playerOne.getName(), game.getPlayerTwo().getName());
+		List<Piece> pieces = Lists.newArrayList(game.getPieces().values());
+		pieces.addAll(playerOne.getPiecesInHand().values());
+		pieces.addAll(game.getPlayerTwo().getPiecesInHand().values());
+		for (Piece piece: pieces) {
+			int index = piece.getId() - 1;
+			if (index < 0 || index >= PIECES) {
+				throw new HiveException(PIECE_DOESNT_EXIST);
+			}
+			board.types[index] = piece.getType();
+			board.owners[index] = piece.getPlayer() == playerOne ? 0 : 1;
+		}
+		for (int level = 0; level < LEVELS; level++) {
+			for (Piece piece: game.getPieces().values()) {
+				Coordinates coordinates = piece.getCoordinates();
+				if (coordinates.getZ() == level) {
+					board.place(piece.getId() - 1, coordinates.getX(), coordinates.getY(), level);
+				}
+			}
+		}
+		board.recentre();
+		Set<Integer> moved = Sets.newHashSet();
+		for (Move move: game.getMoves()) {
+			board.moves.add(Moves.encode(move, moved.add(move.getPieceId())));
+		}
+		board.currentPlayer = game.getCurrentPlayer() == playerOne ? 0 : 1;
+		return board;
+	}
+
+	/**
+	 * New game in this position. Its moves are the ones played before, so rules depending on
+	 * the move number stay the same, but the moves cannot be taken back.
+	 */
+	public Game toGame() {
+		Game game = new Game(0, new Player(playerNames[0]), new Player(playerNames[1]));
+		Player[] players = {game.getPlayerOne(), game.getPlayerTwo()};
+		// stacks are built from the bottom up
+		Map<Integer, Piece> pieces = Maps.newLinkedHashMap();
+		for (int level = 0; level < LEVELS; level++) {
+			for (int index = 0; index < PIECES; index++) {
+				if (onBoard[index] && levels[index] == level) {
+					Piece piece = players[owners[index]].getPiecesInHand().remove(index + 1);
+					piece.setCoordinates(Coordinates.of(xs[index], ys[index], level));
+					pieces.put(piece.getId(), piece);
+				}
+			}
+		}
+		game.setPieces(pieces);
+		game.setMoves(Lists.newArrayList(moves.asList()));
+		game.setCurrentPlayer(players[currentPlayer]);
+		return game;
+	}
+
+	/**
+	 * Makes a move without validating it, e.g. one taken from {@link #getAvailableMoves()}.
+	 */
+	public void makeMove(Move move) {
+		int index = move.getPieceId() - 1;
+		if (index < 0 || index >= PIECES) {
+			throw new HiveException(PIECE_DOESNT_EXIST);
+		}
+		makeMove(Moves.encode(move, !onBoard[index]));
+	}
+
+	/**
+	 * Makes a move packed with {@link Moves} without validating it, e.g. one generated by
+	 * {@link #generateMoves(MoveList)}.
+	 */
+	public void makeMove(int move) {
+		int index = Moves.getPieceIndex(move);
+		if (undoSize + 4 > undoStack.length) {
+			undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+		}
+		undoStack[undoSize++] = index;
+		undoStack[undoSize++] = xs[index];
+		undoStack[undoSize++] = ys[index];
+		undoStack[undoSize++] = onBoard[index] ? levels[index] : -1;
+		if (onBoard[index]) {
+			lift(index);
+		}
+		place(index, Moves.getX(move), Moves.getY(move), Moves.getZ(move));
+		moves.add(move);
+		currentPlayer ^= 1;
+	}
+
+	public void unmakeMove() {
+		if (undoSize == 0) {
+			throw new HiveException(NO_MOVE_TO_UNMAKE);
+		}
+		int level = undoStack[--undoSize];
+		int y = undoStack[--undoSize];
+		int x = undoStack[--undoSize];
+		int index = undoStack[--undoSize];
+		lift(index);
+		if (level >= 0) {
+			place(index, x, y, level);
+		}
+		moves.removeLast();
+		currentPlayer ^= 1;
+	}
+
+	public List<Move> getAvailableMoves() {
+		MoveList result = new MoveList();
+		generateMoves(result);
+		return Lists.newArrayList(result.asList());
+	}
+
+	/**
+	 * Replaces the content of the list with the moves available to the current player, puts
+	 * first.
+	 */
+	public void generateMoves(MoveList result) {
+		result.clear();
+		addPuts(ALL_PIECES, result);
+		findPinnedHexes();
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index] && owners[index] == currentPlayer) {
+				addPieceMoves(index, result);
+			}
+		}
+	}
+
+	/**
+	 * Random move of the current player packed with {@link Moves}, {@link #NO_MOVE} when there is
+	 * none, for playouts. A random piece is picked first and then one of its moves, so only the
+	 * moves of the pieces tried are generated; pieces with few moves get their moves picked more
+	 * often than with a uniform choice over all moves. Pieces in hand of the same type count as
+	 * one. The list is used as a buffer and left with the moves of the last piece tried.
+	 */
+	public int randomMove(Random random, MoveList buffer) {
+		int count = 0;
+		for (int index = 0; index < PIECES; index++) {
+			if (owners[index] == currentPlayer && (onBoard[index] || !isAfterSameInHand(index))) {
+				candidates[count++] = index;
+			}
+		}
+		boolean pinnedFound = false;
+		while (count > 0) {
+			int pick = random.nextInt(count);
+			int index = candidates[pick];
+			candidates[pick] = candidates[--count];
+			buffer.clear();
+			if (onBoard[index]) {
+				if (!pinnedFound) {
+					findPinnedHexes();
+					pinnedFound = true;
+				}
+				addPieceMoves(index, buffer);
+			} else {
+				addPuts(index, buffer);
+			}
+			if (!buffer.isEmpty()) {
+				return buffer.get(random.nextInt(buffer.size()));
+			}
+		}
+		return NO_MOVE;
+	}
+
+	/**
+	 * True when all hexes around the player's queen are occupied.
+	 */
+	public boolean isQueenSurrounded(int player) {
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index] && owners[index] == player && types[index] == PieceType.QUEEN) {
+				int hex = hexOf(index);
+				for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+					if (heights[neighbour(hex, direction)] == 0) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 0 when the first player is to move, 1 otherwise.
+	 */
+	public int getCurrentPlayer() {
+		return currentPlayer;
+	}
+
+	public int getPiecesInHandCount(int player, PieceType type) {
+		int count = 0;
+		for (int index = 0; index < PIECES; index++) {
+			if (!onBoard[index] && owners[index] == player && types[index] == type) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public List<Move> getMoves() {
+		return moves.asList();
+	}
+
+	public int getHeight(int x, int y) {
+		int localX = x - originX;
+		int localY = y - originY;
+		if (localX < 0 || localX >= SIZE || localY < 0 || localY >= SIZE) {
+			return 0;
+		}
+		return heights[localX * SIZE + localY];
+	}
+
+	/**
+	 * Copy of the bitboard of the player's pieces on the given level, see {@link #getOriginX()}
+	 * and {@link #getOriginY()} for the hexes it covers.
+	 */
+	public long[] getOccupancy(int player, int level) {
+		return occupancy[player][level].clone();
+	}
+
+	public int getOriginX() {
+		return originX;
+	}
+
+	public int getOriginY() {
+		return originY;
+	}
+
+	/**
+	 * Hexes reached from the given ones with a step in the direction, ORed into target.
+	 */
+	static void shift(long[] hexes, int direction, long[] target) {
+		shift(hexes, EVEN_COLUMNS, EVEN_SHIFTS[direction], ~EVEN_WRAPS[direction], target);
+		shift(hexes, ODD_COLUMNS, ODD_SHIFTS[direction], ~ODD_WRAPS[direction], target);
+	}
+
+	// steps are shorter than a long, so each word takes bits from itself and one neighbouring word
+	private static void shift(long[] hexes, long columns, int bits, long kept, long[] target) {
+		if (bits > 0) {
+			long carry = 0;
+			for (int word = 0; word < WORDS; word++) {
+				long value = hexes[word] & columns;
+				target[word] |= (value << bits | carry) & kept;
+				carry = value >>> (Long.SIZE - bits);
+			}
+		} else {
+			bits = -bits;
+			long carry = 0;
+			for (int word = WORDS - 1; word >= 0; word--) {
+				long value = hexes[word] & columns;
+				target[word] |= (value >>> bits | carry) & kept;
+				carry = value << (Long.SIZE - bits);
+			}
+		}
+	}
+
+	private static int neighbour(int hex, int direction) {
+		return hex + ((hex & SIZE) == 0 ? EVEN_SHIFTS[direction] : ODD_SHIFTS[direction]);
+	}
+
+	private static boolean contains(long[] hexes, int hex) {
+		return (hexes[hex >>> 6] & 1L << hex) != 0;
+	}
+
+	private int hexOf(int index) {
+		return (xs[index] - originX) * SIZE + ys[index] - originY;
+	}
+
+	private int encode(int index, int hex, int level) {
+		return Moves.encode(index, originX + hex / SIZE, originY + hex % SIZE, level, !onBoard[index]);
+	}
+
+	private void place(int index, int x, int y, int level) {
+		xs[index] = x;
+		ys[index] = y;
+		levels[index] = level;
+		onBoard[index] = true;
+		piecesOnBoard++;
+		int localX = x - originX;
+		int localY = y - originY;
+		if (localX < MARGIN || localX >= SIZE - MARGIN || localY < MARGIN || localY >= SIZE - MARGIN) {
+			recentre();
+		} else {
+			index(index);
+		}
+	}
+
+	private void lift(int index) {
+		int hex = hexOf(index);
+		occupancy[owners[index]][levels[index]][hex >>> 6] &= ~(1L << hex);
+		heights[hex] = (byte) levels[index];
+		onBoard[index] = false;
+		piecesOnBoard--;
+	}
+
+	private void index(int index) {
+		int hex = hexOf(index);
+		occupancy[owners[index]][levels[index]][hex >>> 6] |= 1L << hex;
+		heights[hex] = (byte) Math.max(heights[hex], levels[index] + 1);
+	}
+
+	// puts the middle of the hive in the middle of the window, keeping the parity of columns
+	private void recentre() {
+		int minX = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index]) {
+				minX = Math.min(minX, xs[index]);
+				maxX = Math.max(maxX, xs[index]);
+				minY = Math.min(minY, ys[index]);
+				maxY = Math.max(maxY, ys[index]);
+			}
+		}
+		if (minX > maxX) {
+			return;
+		}
+		originX = ((minX + maxX) >> 1) - SIZE / 2 & ~1;
+		originY = ((minY + maxY) >> 1) - SIZE / 2;
+		for (long[][] player: occupancy) {
+			for (long[] hexes: player) {
+				Arrays.fill(hexes, 0);
+			}
+		}
+		Arrays.fill(heights, (byte) 0);
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index]) {
+				index(index);
+			}
+		}
+	}
+
+	private void findGround() {
+		for (int word = 0; word < WORDS; word++) {
+			ground[word] = occupancy[0][0][word] | occupancy[1][0][word];
+		}
+	}
+
+	// puts of the given piece in hand, or of all of them
+	private void addPuts(int piece, MoveList result) {
+		if (moves.size() == 0 && piecesOnBoard == 0) {
+			for (int index = 0; index < PIECES; index++) {
+				if (!onBoard[index] && owners[index] == currentPlayer && (piece == ALL_PIECES || index == piece)) {
+					result.add(Moves.encode(index, 0, 0, 0, true));
+				}
+			}
+			return;
+		}
+		if (moves.size() == 1 && piecesOnBoard == 1) {
+			int first = 0;
+			while (!onBoard[first]) {
+				first++;
+			}
+			for (int index = 0; index < PIECES; index++) {
+				if (!onBoard[index] && owners[index] == currentPlayer && (piece == ALL_PIECES || index == piece)) {
+					for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+						result.add(Moves.encode(index, BoardUtils.neighbourX(xs[first], direction),
+								BoardUtils.neighbourY(xs[first], ys[first], direction), 0, true));
+					}
+				}
+			}
+			return;
+		}
+		boolean onlyQueen = false;
+		if (moves.size() == 6 || moves.size() == 7) {
+			onlyQueen = true;
+			for (int index = 0; index < PIECES; index++) {
+				if (onBoard[index] && owners[index] == currentPlayer && types[index] == PieceType.QUEEN) {
+					onlyQueen = false;
+				}
+			}
+		}
+		findPlacementFrontier();
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index] || owners[index] != currentPlayer || onlyQueen && types[index] != PieceType.QUEEN
+					|| piece != ALL_PIECES && index != piece) {
+				continue;
+			}
+			for (int word = 0; word < WORDS; word++) {
+				for (long hexes = frontier[word]; hexes != 0; hexes &= hexes - 1) {
+					result.add(encode(index, word * Long.SIZE + Long.numberOfTrailingZeros(hexes), 0));
+				}
+			}
+		}
+	}
+
+	// pieces of a type have consecutive indexes, so the previous one tells if the type was tried
+	private boolean isAfterSameInHand(int index) {
+		return index > 0 && !onBoard[index - 1] && owners[index - 1] == owners[index] && types[index - 1] == types[index];
+	}
+
+	private void addPieceMoves(int index, MoveList result) {
+		int hex = hexOf(index);
+		if (levels[index] != heights[hex] - 1 || levels[index] == 0 && contains(pinned, hex)) {
+			return;
+		}
+		if (types[index] == null) {
+			return;
+		}
+		switch (types[index]) {
+		case QUEEN:
+			addQueenMoves(index, hex, result);
+			break;
+		case ANT:
+			addAntMoves(index, hex, result);
+			break;
+		case SPIDER:
+			addSpiderMoves(index, hex, result);
+			break;
+		case GRASSHOPPER:
+			addGrasshopperMoves(index, hex, result);
+			break;
+		case BEETLE:
+			addBeetleMoves(index, hex, result);
+			break;
+		default:
+			break;
+		}
+	}
+
+	// empty hexes next to a stack topped by the current player and to none topped by the other one
+	private void findPlacementFrontier() {
+		for (int player = 0; player < 2; player++) {
+			Arrays.fill(tops[player], 0);
+			for (int level = 0; level < LEVELS; level++) {
+				for (int word = 0; word < WORDS; word++) {
+					long above = level + 1 < LEVELS ? occupancy[0][level + 1][word] | occupancy[1][level + 1][word] : 0;
+					tops[player][word] |= occupancy[player][level][word] & ~above;
+				}
+			}
+		}
+		// hexes next to the other player's stacks go to next, the current player's to frontier
+		Arrays.fill(frontier, 0);
+		Arrays.fill(next, 0);
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			shift(tops[currentPlayer], direction, frontier);
+			shift(tops[currentPlayer ^ 1], direction, next);
+		}
+		findGround();
+		for (int word = 0; word < WORDS; word++) {
+			frontier[word] &= ~next[word] & ~ground[word];
+		}
+	}
+
+	/**
+	 * Hexes where a single piece cannot be taken away without splitting the hive, found as
+	 * articulation points like in {@link hive.pieces.HiveGraph}.
+	 */
+	private void findPinnedHexes() {
+		Arrays.fill(pinned, 0);
+		if (piecesOnBoard < 3) {
+			return;
+		}
+		int root = hexOf(firstPieceOnBoard());
+		int rootChildren = 0;
+		int time = 0;
+		int top = 0;
+		// visited holds the depth first search stack
+		visited[top++] = root;
+		parent[root] = -1;
+		discovery[root] = low[root] = ++time;
+		nextDirection[root] = 0;
+		while (top > 0) {
+			int hex = visited[top - 1];
+			if (nextDirection[hex] < BoardUtils.DIRECTIONS) {
+				int neighbour = neighbour(hex, nextDirection[hex]++);
+				if (heights[neighbour] == 0) {
+					continue;
+				}
+				if (discovery[neighbour] == 0) {
+					parent[neighbour] = hex;
+					discovery[neighbour] = low[neighbour] = ++time;
+					nextDirection[neighbour] = 0;
+					visited[top++] = neighbour;
+					if (hex == root) {
+						rootChildren++;
+					}
+				} else if (neighbour != parent[hex]) {
+					low[hex] = Math.min(low[hex], discovery[neighbour]);
+				}
+			} else {
+				top--;
+				int parentHex = parent[hex];
+				if (parentHex >= 0) {
+					low[parentHex] = Math.min(low[parentHex], low[hex]);
+					if (parentHex != root && low[hex] >= discovery[parentHex]) {
+						pinned[parentHex >>> 6] |= 1L << parentHex;
+					}
+				}
+			}
+		}
+		if (rootChildren > 1) {
+			pinned[root >>> 6] |= 1L << root;
+		}
+		// every occupied hex has been visited, marks are cleared for the next search
+		for (int index = 0; index < PIECES; index++) {
+			if (onBoard[index]) {
+				discovery[hexOf(index)] = 0;
+			}
+		}
+	}
+
+	private int firstPieceOnBoard() {
+		int index = 0;
+		while (!onBoard[index]) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Hexes from which a ground piece can slide in each direction with the piece on the given hex
+	 * lifted: the target is empty and exactly one of the two hexes flanking the slide is occupied.
+	 */
+	private void findSlides(int lifted) {
+		findGround();
+		ground[lifted >>> 6] &= ~(1L << lifted);
+		// hexes having an occupied neighbour in each direction
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			Arrays.fill(occupiedNeighbours[direction], 0);
+			shift(ground, (direction + BoardUtils.DIRECTIONS / 2) % BoardUtils.DIRECTIONS, occupiedNeighbours[direction]);
+		}
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			long[] left = occupiedNeighbours[BoardUtils.rotateCounterClockwise(direction)];
+			long[] right = occupiedNeighbours[BoardUtils.rotateClockwise(direction)];
+			for (int word = 0; word < WORDS; word++) {
+				slides[direction][word] = ~ground[word] & ~occupiedNeighbours[direction][word] & (left[word] ^ right[word]);
+			}
+		}
+	}
+
+	private void addQueenMoves(int index, int hex, MoveList result) {
+		findSlides(hex);
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			if (contains(slides[direction], hex)) {
+				result.add(encode(index, neighbour(hex, direction), 0));
+			}
+		}
+	}
+
+	// flood fill of all hexes reachable with any number of slides
+	private void addAntMoves(int index, int hex, MoveList result) {
+		findSlides(hex);
+		Arrays.fill(reached, 0);
+		Arrays.fill(frontier, 0);
+		reached[hex >>> 6] = frontier[hex >>> 6] = 1L << hex;
+		boolean growing = true;
+		while (growing) {
+			Arrays.fill(next, 0);
+			for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+				for (int word = 0; word < WORDS; word++) {
+					sliding[word] = frontier[word] & slides[direction][word];
+				}
+				shift(sliding, direction, next);
+			}
+			growing = false;
+			for (int word = 0; word < WORDS; word++) {
+				frontier[word] = next[word] & ~reached[word];
+				reached[word] |= frontier[word];
+				growing |= frontier[word] != 0;
+			}
+		}
+		reached[hex >>> 6] &= ~(1L << hex);
+		for (int word = 0; word < WORDS; word++) {
+			for (long hexes = reached[word]; hexes != 0; hexes &= hexes - 1) {
+				result.add(encode(index, word * Long.SIZE + Long.numberOfTrailingZeros(hexes), 0));
+			}
+		}
+	}
+
+	// paths of exactly three slides never coming back to a hex already on the path
+	private void addSpiderMoves(int index, int hex, MoveList result) {
+		findSlides(hex);
+		// reached holds the destinations found so far and nextDirection is indexed by depth
+		Arrays.fill(reached, 0);
+		path[0] = hex;
+		nextDirection[0] = 0;
+		int depth = 0;
+		while (depth >= 0) {
+			if (nextDirection[depth] == BoardUtils.DIRECTIONS) {
+				depth--;
+				continue;
+			}
+			int direction = nextDirection[depth]++;
+			if (!contains(slides[direction], path[depth])) {
+				continue;
+			}
+			int neighbour = neighbour(path[depth], direction);
+			if (neighbour == path[0] || depth > 0 && neighbour == path[1] || depth > 1 && neighbour == path[2]) {
+				continue;
+			}
+			if (depth == SPIDER_SLIDES - 1) {
+				if (!contains(reached, neighbour)) {
+					reached[neighbour >>> 6] |= 1L << neighbour;
+					result.add(encode(index, neighbour, 0));
+				}
+				continue;
+			}
+			depth++;
+			path[depth] = neighbour;
+			nextDirection[depth] = 0;
+		}
+	}
+
+	private void addGrasshopperMoves(int index, int hex, MoveList result) {
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			int landing = neighbour(hex, direction);
+			if (heights[landing] == 0) {
+				continue;
+			}
+			while (heights[landing] != 0) {
+				landing = neighbour(landing, direction);
+			}
+			result.add(encode(index, landing, 0));
+		}
+	}
+
+	private void addBeetleMoves(int index, int hex, MoveList result) {
+		int level = levels[index];
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			int neighbour = neighbour(hex, direction);
+			int height = heights[neighbour];
+			if (height == level) {
+				// sliding on the same level, through the gate between the flanking stacks
+				int left = heights[neighbour(hex, BoardUtils.rotateCounterClockwise(direction))];
+				int right = heights[neighbour(hex, BoardUtils.rotateClockwise(direction))];
+				if (left > level && right > level) {
+					continue;
+				}
+			}
+			if (height == 0 && !hasNeighbourOtherThan(neighbour, level == 0 ? hex : -1)) {
+				continue;
+			}
+			result.add(encode(index, neighbour, height));
+		}
+	}
+
+	private boolean hasNeighbourOtherThan(int hex, int excluded) {
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			int neighbour = neighbour(hex, direction);
+			if (neighbour != excluded && heights[neighbour] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
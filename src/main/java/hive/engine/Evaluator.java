@@ -0,0 +1,15 @@
+package hive.engine;
+
+import hive.Game;
+
+/**
+ * Static evaluation of positions for searches.
+ */
+public interface Evaluator {
+
+	/**
+	 * Score of the position for the player to move, positive when the position is good for them.
+	 * Scores must stay well below {@link AlphaBetaSearch#WIN_SCORE}.
+	 */
+	int evaluate(Game game);
+}
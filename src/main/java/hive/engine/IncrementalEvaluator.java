@@ -0,0 +1,283 @@
+package hive.engine;
+
+import hive.Board;
+import hive.Coordinates;
+import hive.Game;
+import hive.MoveListener;
+import hive.Piece;
+import hive.PieceType;
+import hive.Player;
+import hive.pieces.BoardUtils;
+import hive.pieces.HiveGraph;
+
+import java.util.Set;
+
+/**
+ * Evaluation of the positions of one game, kept up to date by listening to its moves instead of
+ * going over all pieces for every position. It scores, for each player:
+ * <ul>
+ * <li>liberties of the queen, the empty hexes around it, read from the board's neighbour masks,</li>
+ * <li>a beetle of the other player on top of the queen,</li>
+ * <li>pieces pinned by the one hive rule,</li>
+ * <li>mobility of each piece type, estimated from the slides, climbs and jumps a piece has
+ * from its hex rather than from full move generation: an ant or a spider counts its first
+ * slides only.</li>
+ * </ul>
+ * The evaluator follows the moves of the game once attached to it with {@link #attachTo(Game)},
+ * until {@link #detach()}. A move changes the mobility only of pieces on or next to the hexes it
+ * leaves and enters, so only those are estimated again. The articulation hexes of the hive are
+ * searched for again only when a hex gets its first piece or loses its last one, a beetle moving
+ * between occupied hexes just changes which pieces lie alone on them. Changes made to the board
+ * behind the game's back are noticed through the board version and lead to evaluating everything
+ * from scratch.
+ */
+public class IncrementalEvaluator implements Evaluator, MoveListener {
+	public static final int QUEEN_LIBERTY_SCORE = 60;
+	public static final int BEETLE_ON_QUEEN_SCORE = 150;
+	public static final int PINNED_PIECE_SCORE = 20;
+	// score of a single move, indexed by PieceType ordinal
+	private static final int[] MOBILITY_SCORES = {12, 6, 4, 4, 6};
+
+	private final Game game;
+	// estimated number of moves of every piece of the game, indexed by piece id - 1
+	private final int[] mobility = new int[2 * PieceType.PIECES_PER_PLAYER];
+	// pieces whose mobility is counted in the totals, indexed the same way
+	private final Piece[] counted = new Piece[mobility.length];
+	private final boolean[] changed = new boolean[mobility.length];
+	private final int[][] mobilityByType = new int[2][PieceType.values().length];
+	// hexes, as Board keys, whose stacks hold the hive together
+	private int[] articulationHexes;
+	private boolean occupiedHexesChanged;
+	private Set<Piece> pinnedPieces;
+	private boolean pinnedPiecesChanged;
+	private Board board;
+	private int boardVersion;
+
+	private IncrementalEvaluator(Game game) {
+		this.game = game;
+	}
+
+	/**
+	 * Evaluator of the game that listens to its moves until {@link #detach()}.
+	 */
+	public static IncrementalEvaluator attachTo(Game game) {
+		IncrementalEvaluator evaluator = new IncrementalEvaluator(game);
+		game.addMoveListener(evaluator);
+		return evaluator;
+	}
+
+	/**
+	 * Stops listening to the game's moves. The evaluator can still be used, every position then
+	 * being evaluated from scratch.
+	 */
+	public void detach() {
+		game.removeMoveListener(this);
+	}
+
+	public int evaluate(Game game) {
+		if (game != this.game) {
+			throw new IllegalArgumentException("Evaluator serves another game");
+		}
+		update();
+		int player = ownerOf(game.getCurrentPlayer());
+		int opponent = 1 - player;
+		int score = QUEEN_LIBERTY_SCORE * (getQueenLiberties(player) - getQueenLiberties(opponent))
+				+ BEETLE_ON_QUEEN_SCORE * (getQueenCover(opponent) - getQueenCover(player))
+				+ PINNED_PIECE_SCORE * (getPinnedCount(opponent) - getPinnedCount(player));
+		for (PieceType type: PieceType.values()) {
+			score += MOBILITY_SCORES[type.ordinal()] * (getMobility(player, type) - getMobility(opponent, type));
+		}
+		return score;
+	}
+
+	public void pieceMoved(Piece piece, Coordinates from, Coordinates to) {
+		if (board != game.getPieces() || board.getVersion() != boardVersion + 1) {
+			// not evaluated yet or changed behind the game's back, everything is evaluated again
+			return;
+		}
+		markChanged(piece);
+		markHexChanged(from);
+		markHexChanged(to);
+		// pieces alone on the articulation hexes are cheap to find again
+		pinnedPiecesChanged = true;
+		if (isOccupiedHexesChange(from, to)) {
+			occupiedHexesChanged = true;
+		}
+		boardVersion = board.getVersion();
+	}
+
+	/**
+	 * Empty hexes around the player's queen, all six while it is in hand.
+	 */
+	public int getQueenLiberties(Player player) {
+		update();
+		return getQueenLiberties(ownerOf(player));
+	}
+
+	/**
+	 * Estimated number of moves of the player's pieces of the given type, pinned pieces excluded:
+	 * the slides, climbs or jumps each piece has from its hex, not the moves it has in full.
+	 */
+	public int getMobility(Player player, PieceType type) {
+		update();
+		return getMobility(ownerOf(player), type);
+	}
+
+	public int getPinnedCount(Player player) {
+		update();
+		return getPinnedCount(ownerOf(player));
+	}
+
+	public boolean isQueenCovered(Player player) {
+		update();
+		return getQueenCover(ownerOf(player)) != 0;
+	}
+
+	private int getQueenLiberties(int owner) {
+		Piece queen = game.getQueenOnBoard(playerOf(owner));
+		if (queen == null) {
+			return BoardUtils.DIRECTIONS;
+		}
+		Coordinates coordinates = queen.getCoordinates();
+		return BoardUtils.DIRECTIONS - Integer.bitCount(board.getNeighbourMask(coordinates.getX(), coordinates.getY()));
+	}
+
+	private int getQueenCover(int owner) {
+		Piece queen = game.getQueenOnBoard(playerOf(owner));
+		if (queen == null) {
+			return 0;
+		}
+		Coordinates coordinates = queen.getCoordinates();
+		Piece top = board.getTop(coordinates.getX(), coordinates.getY());
+		return top != queen && top.getPlayer() != queen.getPlayer() ? 1 : 0;
+	}
+
+	private int getPinnedCount(int owner) {
+		int count = 0;
+		for (Piece piece: pinnedPieces) {
+			if (piece.getPlayer() == playerOf(owner)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int getMobility(int owner, PieceType type) {
+		int result = mobilityByType[owner][type.ordinal()];
+		for (Piece piece: pinnedPieces) {
+			if (piece.getPlayer() == playerOf(owner) && piece.getType() == type) {
+				result -= mobility[piece.getId() - 1];
+			}
+		}
+		return result;
+	}
+
+	private void update() {
+		Board currentBoard = game.getPieces();
+		if (board != currentBoard || boardVersion != currentBoard.getVersion()) {
+			board = currentBoard;
+			boardVersion = currentBoard.getVersion();
+			occupiedHexesChanged = true;
+			for (int index = 0; index < mobility.length; index++) {
+				changed[index] = true;
+			}
+		}
+		for (int index = 0; index < mobility.length; index++) {
+			if (changed[index]) {
+				changed[index] = false;
+				updateMobility(index);
+			}
+		}
+		if (occupiedHexesChanged) {
+			occupiedHexesChanged = false;
+			articulationHexes = HiveGraph.getArticulationHexes(board);
+			pinnedPiecesChanged = true;
+		}
+		if (pinnedPiecesChanged) {
+			pinnedPiecesChanged = false;
+			pinnedPieces = HiveGraph.getPinnedPieces(board, articulationHexes);
+		}
+	}
+
+	private void updateMobility(int index) {
+		Piece oldPiece = counted[index];
+		if (oldPiece != null) {
+			mobilityByType[ownerOf(oldPiece.getPlayer())][oldPiece.getType().ordinal()] -= mobility[index];
+		}
+		Piece piece = board.get(index + 1);
+		if (piece == null || piece.getType() == null) {
+			counted[index] = null;
+			mobility[index] = 0;
+			return;
+		}
+		counted[index] = piece;
+		mobility[index] = estimateMobility(piece);
+		mobilityByType[ownerOf(piece.getPlayer())][piece.getType().ordinal()] += mobility[index];
+	}
+
+	private int estimateMobility(Piece piece) {
+		Coordinates coordinates = piece.getCoordinates();
+		int x = coordinates.getX();
+		int y = coordinates.getY();
+		if (board.getTop(x, y) != piece) {
+			return 0;
+		}
+		if (coordinates.getZ() > 0) {
+			return BoardUtils.DIRECTIONS;
+		}
+		int neighbours = board.getNeighbourMask(x, y);
+		switch (piece.getType()) {
+		case GRASSHOPPER:
+			return Integer.bitCount(neighbours);
+		case BEETLE:
+			return Integer.bitCount(neighbours) + Integer.bitCount(board.getSlideTable().getSlides(x, y, coordinates));
+		default:
+			return Integer.bitCount(board.getSlideTable().getSlides(x, y, coordinates));
+		}
+	}
+
+	// pieces on and next to the hex may have other moves now
+	private void markHexChanged(Coordinates coordinates) {
+		if (coordinates == null) {
+			return;
+		}
+		int x = coordinates.getX();
+		int y = coordinates.getY();
+		markStackChanged(x, y);
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			markStackChanged(BoardUtils.neighbourX(x, direction), BoardUtils.neighbourY(x, y, direction));
+		}
+	}
+
+	private void markStackChanged(int x, int y) {
+		Piece top = board.getTop(x, y);
+		if (top == null) {
+			return;
+		}
+		markChanged(top);
+		for (Piece piece: board.getPiecesUnder(top)) {
+			markChanged(piece);
+		}
+	}
+
+	private void markChanged(Piece piece) {
+		int index = piece.getId() - 1;
+		if (index >= 0 && index < changed.length) {
+			changed[index] = true;
+		}
+	}
+
+	// a hex got its first piece or lost its last one, the listener being called after the move
+	private boolean isOccupiedHexesChange(Coordinates from, Coordinates to) {
+		return from != null && board.getHeight(from.getX(), from.getY()) == 0
+				|| to != null && board.getHeight(to.getX(), to.getY()) == 1;
+	}
+
+	private int ownerOf(Player player) {
+		return player == game.getPlayerOne() ? 0 : 1;
+	}
+
+	private Player playerOf(int owner) {
+		return owner == 0 ? game.getPlayerOne() : game.getPlayerTwo();
+	}
+}
@@ -0,0 +1,145 @@
+package hive.engine;
+
+import hive.Game;
+import hive.HiveException;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Lazy SMP: several {@link AlphaBetaSearch}es of the same position run at once and share one
+ * {@link TranspositionTable}, so each of them cuts off or reorders moves with the results of the
+ * others. The main search runs on the calling thread and helpers on threads of their own, each
+ * search on its own copy of the game, which is left untouched. Helpers start zero to two depths
+ * deeper by their index, so that they get ahead of the main search and fill the table with results
+ * it will need, and each goes through the root moves from another one, so that helpers starting
+ * at the same depth do not search the same moves in the same order.
+ * <p>
+ * When the main search ends the helpers are cancelled; {@link #stop()} cancels all of them from
+ * any thread. The answer is the result of the deepest completed iteration, the main search's one
+ * when helpers got no deeper or when it found a won or lost game. One instance runs one search at
+ * a time; its helper threads are kept between searches until {@link #shutdown()}.
+ */
+public class LazySmpSearch {
+	private final Function<Game, ? extends Evaluator> evaluators;
+	private final TranspositionTable transpositionTable;
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	private final ExecutorService executor;
+
+	/**
+	 * @param evaluators gives the evaluator of each searched game, evaluators are not shared
+	 *            between threads
+	 */
+	public LazySmpSearch(Function<Game, ? extends Evaluator> evaluators, TranspositionTable transpositionTable) {
+		this.evaluators = evaluators;
+		this.transpositionTable = transpositionTable;
+		ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("lazy-smp-helper-%d").setDaemon(true).build();
+		this.executor = Executors.newCachedThreadPool(threadFactory);
+	}
+
+	/**
+	 * Searches the game with the given number of threads, the calling one included, to at most
+	 * maxDepth moves in at most maxMillis milliseconds (values below 1 mean no limit). Nodes of
+	 * all threads are counted in the result. A {@link #stop()} issued before the search starts
+	 * has no effect on it.
+	 */
+	public SearchResult search(Game game, int threads, final int maxDepth, final long maxMillis) {
+		long start = System.nanoTime();
+		cancelled.set(false);
+		List<Future<SearchResult>> helpers = Lists.newArrayList();
+		for (int helper = 1; helper < threads; helper++) {
+			final Game copy = game.copy();
+			final int firstDepth = 1 + helper % 3;
+			final int rootMoveOffset = helper;
+			helpers.add(executor.submit(new Callable<SearchResult>() {
+				@Override
+				public SearchResult call() {
+					AlphaBetaSearch search = new AlphaBetaSearch(evaluators.apply(copy), transpositionTable, cancelled);
+					search.setRootMoveOffset(rootMoveOffset);
+					return search.search(copy, firstDepth, maxDepth, 0, maxMillis);
+				}
+			}));
+		}
+
+		SearchResult best;
+		try {
+			Game copy = game.copy();
+			best = new AlphaBetaSearch(evaluators.apply(copy), transpositionTable, cancelled)
+					.search(copy, maxDepth, 0, maxMillis);
+		} finally {
+			cancelled.set(true);
+		}
+		boolean decided = Math.abs(best.getScore()) >= AlphaBetaSearch.WIN_SCORE && best.getBestMove() != null;
+		long nodes = best.getNodes();
+		try {
+			for (Future<SearchResult> helper: helpers) {
+				SearchResult result = helper.get();
+				nodes += result.getNodes();
+				if (!decided && result.getDepth() > best.getDepth() && result.getBestMove() != null) {
+					best = result;
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		return new SearchResult(best.getPrincipalVariation(), best.getScore(), best.getDepth(), nodes,
+				System.nanoTime() - start);
+	}
+
+	/**
+	 * Cancels the running search, which then answers with what it has found so far.
+	 */
+	public void stop() {
+		cancelled.set(true);
+	}
+
+	/**
+	 * Stops the helper threads, the instance cannot search any more.
+	 */
+	public void shutdown() {
+		stop();
+		executor.shutdownNow();
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.out.println("Usage: LazySmpSearch <millis> [moves] [threads]");
+			return;
+		}
+		long millis = Long.parseLong(args[0]);
+		Game game;
+		try {
+			game = Perft.replay(args.length > 1 ? args[1] : "");
+		} catch (HiveException ex) {
+			System.out.println("Illegal move in position: " + ex.getHiveExceptionCode());
+			return;
+		}
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		TranspositionTable transpositionTable = new TranspositionTable(1 << 20);
+		LazySmpSearch search = new LazySmpSearch(new Function<Game, Evaluator>() {
+			@Override
+			public Evaluator apply(Game game) {
+				return IncrementalEvaluator.attachTo(game);
+			}
+		}, transpositionTable);
+		System.out.println(search.search(game, threads, AlphaBetaSearch.MAX_DEPTH, millis));
+		search.shutdown();
+		System.out.println("table hit rate: " + transpositionTable.getHitRate() + ", occupancy: "
+				+ transpositionTable.getOccupancy());
+	}
+}
@@ -0,0 +1,79 @@
+package hive.engine;
+
+import hive.Move;
+
+import com.google.common.base.Objects;
+
+/**
+ * Outcome of a Monte Carlo tree search: the most visited move with its share of won playouts
+ * and the work done.
+ */
+public class MonteCarloResult {
+	private final Move bestMove;
+	private final int visits;
+	private final double winRate;
+	private final long playouts;
+	private final long nodes;
+	private final long elapsedNanos;
+
+	public MonteCarloResult(Move bestMove, int visits, double winRate, long playouts, long nodes, long elapsedNanos) {
+		this.bestMove = bestMove;
+		this.visits = visits;
+		this.winRate = winRate;
+		this.playouts = playouts;
+		this.nodes = nodes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Move to play, null when there was none.
+	 */
+	public Move getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * Playouts that went through the best move.
+	 */
+	public int getVisits() {
+		return visits;
+	}
+
+	/**
+	 * Share of the best move's playouts won by the player to move, draws counting as half.
+	 */
+	public double getWinRate() {
+		return winRate;
+	}
+
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	/**
+	 * Positions added to the tree.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getPlayoutsPerSecond() {
+		return playouts * 1000000000L / Math.max(1, elapsedNanos);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+				.add("bestMove", bestMove)
+				.add("visits", visits)
+				.add("winRate", winRate)
+				.add("playouts", playouts)
+				.add("nodes", nodes)
+				.add("playoutsPerSecond", getPlayoutsPerSecond())
+				.toString();
+	}
+}
@@ -0,0 +1,300 @@
+package hive.engine;
+
+import hive.Game;
+import hive.HiveException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Monte Carlo tree search with UCT selection, grown by several threads at once on a single shared
+ * tree. Every thread plays on its own {@link BitBoard} copy of the searched position, which is
+ * left untouched. A thread going down the tree counts a visit without a win on every node it
+ * passes (a virtual loss), so that other threads prefer other paths until its playout is scored.
+ * <p>
+ * Playouts go on with {@link BitBoard#randomMove(java.util.Random, MoveList)} until a queen is
+ * surrounded, scoring a win for its opponent, or until {@link #MAX_PLAYOUT_MOVES} moves, scoring a
+ * draw. A leaf is expanded when it is visited the second time. The search ends when the playout
+ * or time budget runs out and answers the most visited move.
+ * <p>
+ * One instance runs one search at a time; its daemon worker threads are kept between searches
+ * until {@link #shutdown()}.
+ */
+public class MonteCarloTreeSearch {
+	public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+	public static final int MAX_PLAYOUT_MOVES = 200;
+
+	// outcomes in half points of the first player
+	private static final int WIN = 2;
+	private static final int DRAW = 1;
+	private static final int LOSS = 0;
+	private static final int NO_OUTCOME = -1;
+
+	private final int threads;
+	private final double exploration;
+	private final long seed;
+	private final ExecutorService executor;
+
+	public MonteCarloTreeSearch() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public MonteCarloTreeSearch(int threads) {
+		this(threads, DEFAULT_EXPLORATION, System.nanoTime());
+	}
+
+	/**
+	 * @param seed seed of the random playouts, each thread getting the next one
+	 */
+	public MonteCarloTreeSearch(int threads, double exploration, long seed) {
+		this.threads = Math.max(1, threads);
+		this.exploration = exploration;
+		this.seed = seed;
+		ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("monte-carlo-worker-%d").setDaemon(true).build();
+		this.executor = Executors.newFixedThreadPool(this.threads, threadFactory);
+	}
+
+	/**
+	 * Searches the game with at most maxPlayouts playouts in at most maxMillis milliseconds (values
+	 * below 1 mean no limit, at least one of them has to be given).
+	 */
+	public MonteCarloResult search(Game game, long maxPlayouts, long maxMillis) {
+		if (maxPlayouts < 1 && maxMillis < 1) {
+			throw new IllegalArgumentException("Search needs a playout or time budget");
+		}
+		long start = System.nanoTime();
+		final Tree tree = new Tree(BitBoard.of(game).getCurrentPlayer() ^ 1,
+				maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE, maxMillis > 0 ? start + maxMillis * 1000000L : Long.MAX_VALUE);
+		try {
+			List<Future<?>> futures = Lists.newArrayList();
+			for (int thread = 0; thread < threads; thread++) {
+				final BitBoard board = BitBoard.of(game);
+				final Random random = new Random(seed + thread);
+				futures.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						new Worker(tree, board, random).run();
+					}
+				}));
+			}
+			for (Future<?> future: futures) {
+				future.get();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		} finally {
+			// workers still running after a failure or an interrupt stop at their next playout
+			tree.stopped = true;
+		}
+
+		Node best = null;
+		Node[] children = tree.root.children;
+		if (children != null) {
+			for (Node child: children) {
+				if (best == null || child.visits.get() > best.visits.get()) {
+					best = child;
+				}
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		if (best == null) {
+			return new MonteCarloResult(null, 0, 0, tree.playouts.get(), tree.nodes.get(), elapsed);
+		}
+		int visits = best.visits.get();
+		return new MonteCarloResult(Moves.toMove(best.move), visits, best.score.get() / (2.0 * Math.max(1, visits)),
+				tree.playouts.get(), tree.nodes.get(), elapsed);
+	}
+
+	/**
+	 * Stops the worker threads, the search cannot be used any more.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static final class Node {
+		// packed with Moves, NO_MOVE at the root
+		private final int move;
+		// player who made the move, the score is counted for
+		private final int player;
+		private final AtomicInteger visits = new AtomicInteger();
+		// half points won by the player in the playouts through the node
+		private final AtomicInteger score = new AtomicInteger();
+		private volatile Node[] children;
+
+		private Node(int move, int player) {
+			this.move = move;
+			this.player = player;
+		}
+	}
+
+	private static final class Tree {
+		private final Node root;
+		private final long maxPlayouts;
+		private final long deadline;
+		private final AtomicLong startedPlayouts = new AtomicLong();
+		private final AtomicLong playouts = new AtomicLong();
+		private final AtomicLong nodes = new AtomicLong(1);
+		private volatile boolean stopped;
+
+		private Tree(int player, long maxPlayouts, long deadline) {
+			this.root = new Node(BitBoard.NO_MOVE, player);
+			this.maxPlayouts = maxPlayouts;
+			this.deadline = deadline;
+		}
+	}
+
+	private final class Worker {
+		private final Tree tree;
+		private final BitBoard board;
+		private final Random random;
+		private final MoveList moves = new MoveList();
+		private final List<Node> path = Lists.newArrayList();
+
+		private Worker(Tree tree, BitBoard board, Random random) {
+			this.tree = tree;
+			this.board = board;
+			this.random = random;
+		}
+
+		private void run() {
+			while (tree.startedPlayouts.incrementAndGet() <= tree.maxPlayouts && System.nanoTime() < tree.deadline
+					&& !tree.stopped && !Thread.currentThread().isInterrupted()) {
+				playout();
+				tree.playouts.incrementAndGet();
+			}
+		}
+
+		private void playout() {
+			path.clear();
+			Node node = tree.root;
+			node.visits.incrementAndGet();
+			path.add(node);
+			int outcome = getOutcome();
+			while (outcome == NO_OUTCOME) {
+				Node[] children = node.children;
+				if (children == null) {
+					if (node != tree.root && node.visits.get() < 2) {
+						break;
+					}
+					children = expand(node);
+				}
+				if (children.length == 0) {
+					break;
+				}
+				node = select(node, children);
+				node.visits.incrementAndGet();
+				path.add(node);
+				board.makeMove(node.move);
+				outcome = getOutcome();
+			}
+
+			int playoutMoves = 0;
+			while (outcome == NO_OUTCOME) {
+				int move = playoutMoves < MAX_PLAYOUT_MOVES ? board.randomMove(random, moves) : BitBoard.NO_MOVE;
+				if (move == BitBoard.NO_MOVE) {
+					outcome = DRAW;
+					break;
+				}
+				board.makeMove(move);
+				playoutMoves++;
+				outcome = getOutcome();
+			}
+			for (int i = 0; i < playoutMoves + path.size() - 1; i++) {
+				board.unmakeMove();
+			}
+
+			// visits were counted on the way down
+			for (Node visited: path) {
+				visited.score.addAndGet(visited.player == 0 ? outcome : WIN - outcome);
+			}
+		}
+
+		private Node[] expand(Node node) {
+			synchronized (node) {
+				if (node.children == null) {
+					board.generateMoves(moves);
+					int player = board.getCurrentPlayer();
+					Node[] children = new Node[moves.size()];
+					for (int i = 0; i < children.length; i++) {
+						children[i] = new Node(moves.get(i), player);
+					}
+					// unvisited children are tried in order, so they are shuffled first
+					for (int i = children.length - 1; i > 0; i--) {
+						int swapped = random.nextInt(i + 1);
+						Node child = children[i];
+						children[i] = children[swapped];
+						children[swapped] = child;
+					}
+					tree.nodes.addAndGet(children.length);
+					node.children = children;
+				}
+				return node.children;
+			}
+		}
+
+		private Node select(Node parent, Node[] children) {
+			double logVisits = Math.log(Math.max(1, parent.visits.get()));
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			for (Node child: children) {
+				int visits = child.visits.get();
+				if (visits == 0) {
+					return child;
+				}
+				double value = child.score.get() / (2.0 * visits) + exploration * Math.sqrt(logVisits / visits);
+				if (value > bestValue) {
+					bestValue = value;
+					best = child;
+				}
+			}
+			return best;
+		}
+
+		private int getOutcome() {
+			boolean firstSurrounded = board.isQueenSurrounded(0);
+			boolean secondSurrounded = board.isQueenSurrounded(1);
+			if (firstSurrounded) {
+				return secondSurrounded ? DRAW : LOSS;
+			}
+			return secondSurrounded ? WIN : NO_OUTCOME;
+		}
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.out.println("Usage: MonteCarloTreeSearch <millis> [moves] [threads]");
+			return;
+		}
+		long millis = Long.parseLong(args[0]);
+		Game game;
+		try {
+			game = Perft.replay(args.length > 1 ? args[1] : "");
+		} catch (HiveException ex) {
+			System.out.println("Illegal move in position: " + ex.getHiveExceptionCode());
+			return;
+		}
+		MonteCarloTreeSearch search = args.length > 2 ? new MonteCarloTreeSearch(Integer.parseInt(args[2]))
+				: new MonteCarloTreeSearch();
+		try {
+			System.out.println(search.search(game, 0, millis));
+		} finally {
+			search.shutdown();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package hive.engine;
+
+import hive.Move;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable list of moves packed with {@link Moves}, meant to be cleared and filled again by move
+ * generation so that searching does not allocate.
+ */
+public class MoveList {
+	private int[] moves;
+	private int size;
+
+	public MoveList() {
+		this(64);
+	}
+
+	public MoveList(int capacity) {
+		moves = new int[Math.max(1, capacity)];
+	}
+
+	public void add(int move) {
+		if (size == moves.length) {
+			moves = Arrays.copyOf(moves, size * 2);
+		}
+		moves[size++] = move;
+	}
+
+	public int removeLast() {
+		if (size == 0) {
+			throw new IndexOutOfBoundsException("Empty list");
+		}
+		return moves[--size];
+	}
+
+	public int get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return moves[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * View of the list as {@link Move}s, created on each access.
+	 */
+	public List<Move> asList() {
+		return new AbstractList<Move>() {
+			@Override
+			public Move get(int index) {
+				return Moves.toMove(MoveList.this.get(index));
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+}
@@ -0,0 +1,61 @@
+package hive.engine;
+
+import hive.Coordinates;
+import hive.Move;
+
+/**
+ * Moves packed into an int, for search and perft to keep them in primitive arrays like
+ * {@link MoveList}. From the lowest bit: piece index (piece id - 1) on 5 bits, put flag, level
+ * on 3 bits, x and y on 11 bits each, which covers hexes less than 1024 away from the first
+ * piece put.
+ */
+public final class Moves {
+	private static final int PIECE_MASK = 0x1F;
+	private static final int PUT_FLAG = 1 << 5;
+	private static final int Z_SHIFT = 6;
+	private static final int Z_MASK = 0x7;
+	private static final int X_SHIFT = 9;
+	private static final int Y_SHIFT = 20;
+	private static final int COORDINATE_BITS = 11;
+	private static final int COORDINATE_MASK = (1 << COORDINATE_BITS) - 1;
+
+	private Moves() {}
+
+	public static int encode(int pieceIndex, int x, int y, int z, boolean put) {
+		return pieceIndex | (put ? PUT_FLAG : 0) | z << Z_SHIFT | (x & COORDINATE_MASK) << X_SHIFT
+				| (y & COORDINATE_MASK) << Y_SHIFT;
+	}
+
+	public static int encode(Move move, boolean put) {
+		Coordinates end = move.getEnd();
+		return encode(move.getPieceId() - 1, end.getX(), end.getY(), end.getZ(), put);
+	}
+
+	public static int getPieceIndex(int move) {
+		return move & PIECE_MASK;
+	}
+
+	public static int getPieceId(int move) {
+		return getPieceIndex(move) + 1;
+	}
+
+	public static boolean isPut(int move) {
+		return (move & PUT_FLAG) != 0;
+	}
+
+	public static int getX(int move) {
+		return move << (Integer.SIZE - X_SHIFT - COORDINATE_BITS) >> (Integer.SIZE - COORDINATE_BITS);
+	}
+
+	public static int getY(int move) {
+		return move << (Integer.SIZE - Y_SHIFT - COORDINATE_BITS) >> (Integer.SIZE - COORDINATE_BITS);
+	}
+
+	public static int getZ(int move) {
+		return move >>> Z_SHIFT & Z_MASK;
+	}
+
+	public static Move toMove(int move) {
+		return new Move(getPieceId(move), Coordinates.of(getX(move), getY(move), getZ(move)));
+	}
+}
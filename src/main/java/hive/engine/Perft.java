@@ -0,0 +1,173 @@
+package hive.engine;
+
+import hive.Coordinates;
+import hive.Game;
+import hive.HiveException;
+import hive.Move;
+import hive.Player;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
+
+/**
+ * Counts leaf nodes of the move tree to a fixed depth. Used to check that move generation
+ * gives the same results after optimisations and to measure its throughput. A finished game, one
+ * with a surrounded queen, has no moves: it counts as 1 when reached at the full depth and as 0
+ * before it, so positions after the end of a game are never counted.
+ * <p>
+ * Usage: {@code Perft <depth> [divide|bitboard] [moves]} where moves is a position given as
+ * moves played from the start, e.g. {@code "1:0,0,0;12:0,1,0"} (pieceId:x,y,z), and bitboard
+ * counts on {@link BitBoard} instead of {@link Game}.
+ */
+public class Perft {
+	private final Game game;
+	private long nodes;
+
+	public Perft(Game game) {
+		this.game = game;
+	}
+
+	public long perft(int depth) {
+		if (depth == 0) {
+			return 1;
+		}
+		if (isFinished(game)) {
+			return 0;
+		}
+		List<Move> availableMoves = game.getAvailableMoves();
+		if (depth == 1) {
+			nodes += availableMoves.size();
+			return availableMoves.size();
+		}
+		long leaves = 0;
+		for (Move move: availableMoves) {
+			game.makeMove(move);
+			nodes++;
+			leaves += perft(depth - 1);
+			game.unmakeMove();
+		}
+		return leaves;
+	}
+
+	/**
+	 * Leaf count on a {@link BitBoard}, with moves packed in lists reused at every depth.
+	 */
+	public static long perft(BitBoard board, int depth) {
+		MoveList[] moveLists = new MoveList[Math.max(1, depth)];
+		for (int i = 0; i < moveLists.length; i++) {
+			moveLists[i] = new MoveList();
+		}
+		return depth == 0 ? 1 : perft(board, depth, moveLists);
+	}
+
+	private static long perft(BitBoard board, int depth, MoveList[] moveLists) {
+		if (board.isQueenSurrounded(0) || board.isQueenSurrounded(1)) {
+			return 0;
+		}
+		MoveList availableMoves = moveLists[depth - 1];
+		board.generateMoves(availableMoves);
+		if (depth == 1) {
+			return availableMoves.size();
+		}
+		long leaves = 0;
+		for (int i = 0; i < availableMoves.size(); i++) {
+			board.makeMove(availableMoves.get(i));
+			leaves += perft(board, depth - 1, moveLists);
+			board.unmakeMove();
+		}
+		return leaves;
+	}
+
+	/**
+	 * Leaf counts to the given depth split by the first move.
+	 */
+	public Map<Move, Long> divide(int depth) {
+		Map<Move, Long> result = Maps.newLinkedHashMap();
+		if (isFinished(game)) {
+			return result;
+		}
+		for (Move move: game.getAvailableMoves()) {
+			game.makeMove(move);
+			nodes++;
+			result.put(move, perft(depth - 1));
+			game.unmakeMove();
+		}
+		return result;
+	}
+
+	/**
+	 * Number of positions visited (made moves and counted leaves) since creation.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	private static boolean isFinished(Game game) {
+		return game.isQueenSurrounded(game.getPlayerOne()) || game.isQueenSurrounded(game.getPlayerTwo());
+	}
+
+	public static Game replay(String moves) {
+		Game game = new Game(0, new Player("one"), new Player("two"));
+		for (String move: Splitter.on(';').trimResults().omitEmptyStrings().split(moves)) {
+			game.movePiece(parsePieceId(move), parseCoordinates(move));
+		}
+		return game;
+	}
+
+	private static int parsePieceId(String move) {
+		return Integer.parseInt(move.substring(0, move.indexOf(':')).trim());
+	}
+
+	private static Coordinates parseCoordinates(String move) {
+		List<String> values = Splitter.on(',').trimResults().splitToList(move.substring(move.indexOf(':') + 1));
+		return Coordinates.of(Integer.parseInt(values.get(0)), Integer.parseInt(values.get(1)),
+				Integer.parseInt(values.get(2)));
+	}
+
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.out.println("Usage: Perft <depth> [divide|bitboard] [moves]");
+			return;
+		}
+		int depth = Integer.parseInt(args[0]);
+		boolean divide = args.length > 1 && "divide".equals(args[1]);
+		boolean bitboard = args.length > 1 && "bitboard".equals(args[1]);
+		String moves = args.length > (divide || bitboard ? 2 : 1) ? args[args.length - 1] : "";
+		Game game;
+		try {
+			game = replay(moves);
+		} catch (HiveException ex) {
+			System.out.println("Illegal move in position: " + ex.getHiveExceptionCode());
+			return;
+		}
+
+		Perft perft = new Perft(game);
+		long start = System.nanoTime();
+		long leaves = 0;
+		if (bitboard) {
+			leaves = perft(BitBoard.of(game), depth);
+			long elapsed = Math.max(1, System.nanoTime() - start);
+			System.out.println("perft(" + depth + ") = " + leaves);
+			System.out.println("time: " + elapsed / 1000000 + " ms, leaves/s: " + leaves * 1000000000L / elapsed);
+			return;
+		}
+		if (divide) {
+			for (Map.Entry<Move, Long> entry: perft.divide(depth).entrySet()) {
+				Move move = entry.getKey();
+				Coordinates end = move.getEnd();
+				System.out.println(move.getPieceId() + ":" + end.getX() + "," + end.getY() + "," + end.getZ()
+						+ " " + entry.getValue());
+				leaves += entry.getValue();
+			}
+		} else {
+			leaves = perft.perft(depth);
+		}
+		long elapsed = Math.max(1, System.nanoTime() - start);
+		System.out.println("perft(" + depth + ") = " + leaves);
+		System.out.println("nodes: " + perft.getNodes() + ", time: " + elapsed / 1000000 + " ms, nodes/s: "
+				+ perft.getNodes() * 1000000000L / elapsed);
+	}
+}
@@ -0,0 +1,30 @@
+package hive.engine;
+
+import hive.Coordinates;
+import hive.Game;
+import hive.Piece;
+import hive.Player;
+
+/**
+ * Scores a position only by how closely the queens are surrounded: every occupied hex next to
+ * the other player's queen is worth a point for the player to move, every one next to their own
+ * queen costs a point.
+ */
+public class QueenEvaluator implements Evaluator {
+	public static final int NEIGHBOUR_SCORE = 100;
+
+	public int evaluate(Game game) {
+		Player player = game.getCurrentPlayer();
+		Player opponent = player == game.getPlayerOne() ? game.getPlayerTwo() : game.getPlayerOne();
+		return NEIGHBOUR_SCORE * (countQueenNeighbours(game, opponent) - countQueenNeighbours(game, player));
+	}
+
+	private int countQueenNeighbours(Game game, Player player) {
+		Piece queen = game.getQueenOnBoard(player);
+		if (queen == null) {
+			return 0;
+		}
+		Coordinates coordinates = queen.getCoordinates();
+		return Integer.bitCount(game.getPieces().getNeighbourMask(coordinates.getX(), coordinates.getY()));
+	}
+}
@@ -0,0 +1,71 @@
+package hive.engine;
+
+import hive.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Objects;
+
+/**
+ * Outcome of a search: the best line found with its score for the player to move, the depth it
+ * was searched to and the work done.
+ */
+public class SearchResult {
+	private final List<Move> principalVariation;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long elapsedNanos;
+
+	public SearchResult(List<Move> principalVariation, int score, int depth, long nodes, long elapsedNanos) {
+		this.principalVariation = Collections.unmodifiableList(principalVariation);
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Move to play, null when there was none.
+	 */
+	public Move getBestMove() {
+		return principalVariation.isEmpty() ? null : principalVariation.get(0);
+	}
+
+	public List<Move> getPrincipalVariation() {
+		return principalVariation;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getNodesPerSecond() {
+		return nodes * 1000000000L / Math.max(1, elapsedNanos);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+				.add("bestMove", getBestMove())
+				.add("score", score)
+				.add("depth", depth)
+				.add("nodes", nodes)
+				.add("nodesPerSecond", getNodesPerSecond())
+				.add("principalVariation", principalVariation)
+				.toString();
+	}
+}
@@ -0,0 +1,139 @@
+package hive.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size hash table of search results keyed by {@link hive.Game#getHash()}, shared without
+ * locks by any number of searching threads. Every entry takes two longs of one flat array: the
+ * key XORed with the data, then the data. A reader XORs them back and accepts the entry only when
+ * it gets its own key, so entries torn by concurrent writes are seen as misses.
+ * <p>
+ * The data holds the best move packed with {@link Moves} (with its put flag), the score, the
+ * depth searched and the kind of bound the score is. Statistics are counted without
+ * synchronisation and are approximate when the table is shared.
+ */
+public class TranspositionTable {
+	public static final int EXACT = 0;
+	// the score is at least the stored one (the search failed high)
+	public static final int LOWER_BOUND = 1;
+	// the score is at most the stored one (the search failed low)
+	public static final int UPPER_BOUND = 2;
+	public static final int NO_MOVE = -1;
+	// returned by probe when there is no entry for the key, never equal to stored data
+	public static final long NO_ENTRY = 0;
+
+	private static final int SCORE_SHIFT = 32;
+	private static final int SCORE_BITS = 21;
+	private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+	private static final int DEPTH_MASK = 0x7F;
+	private static final int BOUND_SHIFT = DEPTH_SHIFT + 7;
+	private static final int BOUND_MASK = 0x3;
+	private static final long VALID = 1L << 62;
+	private static final int OCCUPANCY_SAMPLE = 1000;
+
+	private final long[] entries;
+	private final int mask;
+	private long probes;
+	private long hits;
+	private long stores;
+
+	/**
+	 * Table with room for the given number of entries rounded down to a power of two.
+	 */
+	public TranspositionTable(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity));
+		entries = new long[2 * size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Stored data for the hash, {@link #NO_ENTRY} when there is none.
+	 */
+	public long probe(long hash) {
+		probes++;
+		int index = index(hash);
+		long data = entries[index + 1];
+		if ((entries[index] ^ data) != hash || data == NO_ENTRY) {
+			return NO_ENTRY;
+		}
+		hits++;
+		return data;
+	}
+
+	/**
+	 * Keeps the result unless the slot holds the same position searched deeper.
+	 */
+	public void store(long hash, int depth, int bound, int score, int move) {
+		int index = index(hash);
+		long oldData = entries[index + 1];
+		if ((entries[index] ^ oldData) == hash && oldData != NO_ENTRY && getDepth(oldData) > depth) {
+			return;
+		}
+		long data = VALID | (long) (bound & BOUND_MASK) << BOUND_SHIFT | (long) (depth & DEPTH_MASK) << DEPTH_SHIFT
+				| ((long) score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT | move & 0xFFFFFFFFL;
+		entries[index] = hash ^ data;
+		entries[index + 1] = data;
+		stores++;
+	}
+
+	public static int getMove(long data) {
+		return (int) data;
+	}
+
+	public static int getScore(long data) {
+		return (int) (data << (Long.SIZE - SCORE_SHIFT - SCORE_BITS) >> (Long.SIZE - SCORE_BITS));
+	}
+
+	public static int getDepth(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+	}
+
+	public static int getBound(long data) {
+		return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+	}
+
+	public void clear() {
+		Arrays.fill(entries, 0);
+		probes = 0;
+		hits = 0;
+		stores = 0;
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getStores() {
+		return stores;
+	}
+
+	public double getHitRate() {
+		return probes == 0 ? 0 : (double) hits / probes;
+	}
+
+	/**
+	 * Share of used entries, estimated from the first thousand of them.
+	 */
+	public double getOccupancy() {
+		int sample = Math.min(OCCUPANCY_SAMPLE, getCapacity());
+		int used = 0;
+		for (int i = 0; i < sample; i++) {
+			if (entries[2 * i + 1] != NO_ENTRY) {
+				used++;
+			}
+		}
+		return (double) used / sample;
+	}
+
+	private int index(long hash) {
+		return ((int) hash & mask) << 1;
+	}
+}
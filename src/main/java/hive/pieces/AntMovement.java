@@ -1,14 +1,17 @@
 package hive.pieces;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.Move;
 import hive.Piece;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class AntMovement extends MovementImpl {
 
@@ -22,47 +25,64 @@ public class AntMovement extends MovementImpl {
 
 	public List<Move> getAvailableMoves(Piece pieceToMove, Map<Integer, Piece> pieces) {
 		validateAvailableMoves(pieceToMove, pieces);
-		
 		List<Move> availableMoves = Lists.newArrayList();
-		
-		List<Coordinates> processedCoordinates = Lists.newArrayList();
-		List<Coordinates> nextCoordinates = Lists.newArrayList();
-		nextCoordinates.add(pieceToMove.getCoordinates());
-		Coordinates currentCoordinates = pieceToMove.getCoordinates();
-		int currentNextCoordinatesIndex = 0;
-	
-		while(currentNextCoordinatesIndex < nextCoordinates.size()) {
-			currentCoordinates = nextCoordinates.get(currentNextCoordinatesIndex);
-			List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(currentCoordinates);
-			for(Coordinates coordinates: surroundingCoordinates) {
-				if (!BoardUtils.isOccupied(coordinates, pieces.values()) && 
-						BoardUtils.isPathNotBlocked(currentCoordinates, coordinates, pieces.values()) && 
-						isConnectedToHiveAfterRemovingThisPiece(coordinates, pieceToMove, pieces.values()) &&
-						!processedCoordinates.contains(coordinates)) {
-					Move move = new Move(pieceToMove.getId(), coordinates);
-					if (!availableMoves.contains(move)) {
-						availableMoves.add(move);
-					}
-					if (!nextCoordinates.contains(coordinates)) {
-						nextCoordinates.add(coordinates);
-					}
-				}
-			}
-			currentNextCoordinatesIndex++;
-			processedCoordinates.add(currentCoordinates);
-		}
-		
+		Coordinates coordinates = pieceToMove.getCoordinates();
+		// the start hex is never reached again, so the search does not stop early
+		search(pieceToMove, Board.of(pieces), Board.key(coordinates.getX(), coordinates.getY()), availableMoves);
 		return availableMoves;
 	}
 
-	private boolean isConnectedToHiveAfterRemovingThisPiece(Coordinates coordinates, Piece pieceToMove,
-			Collection<Piece> pieces) {
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(coordinates);
-		for(Coordinates potentialHiveElement: surroundingCoordinates) {
-			if (!pieceToMove.getCoordinates().equals(potentialHiveElement)) {
-				if (BoardUtils.isOccupied(potentialHiveElement, pieces)) {
+	@Override
+	public boolean isMoveOk(Move move, Map<Integer, Piece> pieces) {
+		Piece pieceToMove = pieces.get(move.getPieceId());
+		validateAvailableMoves(pieceToMove, pieces);
+		if (!isSlideAway(pieceToMove, move)) {
+			return false;
+		}
+		Coordinates end = move.getEnd();
+		return search(pieceToMove, Board.of(pieces), Board.key(end.getX(), end.getY()), null);
+	}
+
+	/**
+	 * Breadth first search along the slides of the {@link SlideTable}, hexes are kept as
+	 * {@link Board#key(int, int)}.
+	 * Returns as soon as the target hex is reached, moves to all hexes reached before are added
+	 * to availableMoves unless it is null.
+	 */
+	private boolean search(Piece pieceToMove, Board board, int target, List<Move> availableMoves) {
+		SlideTable slideTable = board.getSlideTable();
+		Coordinates start = pieceToMove.getCoordinates();
+		int startKey = Board.key(start.getX(), start.getY());
+		Set<Integer> visited = Sets.newHashSet(startKey);
+		int[] queue = new int[32];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = startKey;
+		while (head < tail) {
+			int key = queue[head++];
+			int x = Board.keyX(key);
+			int y = Board.keyY(key);
+			int slides = slideTable.getSlides(x, y, start);
+			for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+				if ((slides & (1 << direction)) == 0) {
+					continue;
+				}
+				int neighbourX = BoardUtils.neighbourX(x, direction);
+				int neighbourY = BoardUtils.neighbourY(x, y, direction);
+				int neighbourKey = Board.key(neighbourX, neighbourY);
+				if (!visited.add(neighbourKey)) {
+					continue;
+				}
+				if (neighbourKey == target) {
 					return true;
 				}
+				if (availableMoves != null) {
+					availableMoves.add(new Move(pieceToMove.getId(), Coordinates.of(neighbourX, neighbourY, start.getZ())));
+				}
+				if (tail == queue.length) {
+					queue = Arrays.copyOf(queue, tail * 2);
+				}
+				queue[tail++] = neighbourKey;
 			}
 		}
 		return false;
@@ -1,10 +1,10 @@
 package hive.pieces;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.Move;
 import hive.Piece;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -22,35 +22,28 @@ public class BeetleMovement extends MovementImpl {
 
 	public List<Move> getAvailableMoves(Piece pieceToMove, Map<Integer, Piece> pieces) {
 		validateAvailableMoves(pieceToMove, pieces);
+		Board board = Board.of(pieces);
 		
 		List<Move> availableMoves = Lists.newArrayList();
 		
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(pieceToMove.getCoordinates());
-		for (Coordinates coordinates: surroundingCoordinates) {
-			int maxElevationOnHex = getMaxElevationOnCoordinates(coordinates, pieces.values());
-			if (maxElevationOnHex + 1 != pieceToMove.getCoordinates().getZ()) {
-				availableMoves.add(new Move(pieceToMove.getId(), new Coordinates(coordinates.getX(), coordinates.getY(), maxElevationOnHex + 1)));
+		Coordinates coordinates = pieceToMove.getCoordinates();
+		int x = coordinates.getX();
+		int y = coordinates.getY();
+		int z = coordinates.getZ();
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			int neighbourX = BoardUtils.neighbourX(x, direction);
+			int neighbourY = BoardUtils.neighbourY(x, y, direction);
+			int maxElevationOnHex = board.getMaxElevation(neighbourX, neighbourY);
+			if (maxElevationOnHex + 1 != z) {
+				availableMoves.add(new Move(pieceToMove.getId(), Coordinates.of(neighbourX, neighbourY, maxElevationOnHex + 1)));
 			} else {
-				if (BoardUtils.isPathNotBlocked(pieceToMove.getCoordinates(), coordinates, pieces.values())) {
-					availableMoves.add(new Move(pieceToMove.getId(), coordinates));
+				if (BoardUtils.isPathNotBlocked(x, y, z, direction, board)) {
+					availableMoves.add(new Move(pieceToMove.getId(), Coordinates.of(neighbourX, neighbourY, z)));
 				}
 			}
 		}
 		
-		BoardUtils.removeMovesThatWouldBreakTheHive(pieceToMove, availableMoves, pieces);
+		BoardUtils.removeMovesThatWouldBreakTheHive(pieceToMove, availableMoves, board);
 		return availableMoves;
 	}
-
-	private int getMaxElevationOnCoordinates(Coordinates coordinates, Collection<Piece> pieces) {
-		int maxElevation = -1;
-		for (Piece piece: pieces) {
-			if (piece.getCoordinates().getX() != coordinates.getX() || piece.getCoordinates().getY() != coordinates.getY()) {
-				continue;
-			}
-			if (piece.getCoordinates().getZ() > maxElevation) {
-				maxElevation = piece.getCoordinates().getZ();
-			}
-		}
-		return maxElevation;
-	}
 }
@@ -9,6 +9,7 @@ import java.util.Map;
 
 import com.google.common.collect.Lists;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.HiveException;
 import hive.Move;
@@ -16,6 +17,32 @@ import hive.Piece;
 import hive.Player;
 
 public class BoardUtils {
+	// directions are numbered clockwise: up, right up, right down, down, left down, left up
+	public static final int DIRECTIONS = 6;
+	private static final int[] DELTA_X = {0, 1, 1, 0, -1, -1};
+	private static final int[] DELTA_Y_FOR_EVEN_X = {1, 0, -1, -1, -1, 0};
+	private static final int[] DELTA_Y_FOR_ODD_X = {1, 1, 0, -1, 0, 1};
+	// indexed by a six bit mask of occupied neighbours (Board.getNeighbourMask): directions in which
+	// the gate is open, i.e. not both hexes flanking the slide are occupied
+	private static final int[] OPEN_GATES = new int[1 << DIRECTIONS];
+	// directions leading to a free hex with exactly one flanking hex occupied
+	private static final int[] SLIDES = new int[1 << DIRECTIONS];
+	
+	static {
+		for (int mask = 0; mask < 1 << DIRECTIONS; mask++) {
+			for (int direction = 0; direction < DIRECTIONS; direction++) {
+				boolean isLeftOccupied = (mask & (1 << rotateCounterClockwise(direction))) != 0;
+				boolean isRightOccupied = (mask & (1 << rotateClockwise(direction))) != 0;
+				if (!isLeftOccupied || !isRightOccupied) {
+					OPEN_GATES[mask] |= 1 << direction;
+				}
+				if ((mask & (1 << direction)) == 0 && isLeftOccupied != isRightOccupied) {
+					SLIDES[mask] |= 1 << direction;
+				}
+			}
+		}
+	}
+	
 	public static boolean isPieceSurrounded(Piece piece, List<Piece> pieces) {
 		if (piece == null) {
 			throw new HiveException(NULL_PIECE);
@@ -49,30 +76,103 @@ public class BoardUtils {
 	}
 
 	public static List<Coordinates> getSurroundingCoordinatesWithZZero(Coordinates coordinates) {
+		return getSurroundingCoordinates(coordinates, 0);
+	}
+	
+	public static List<Coordinates> getSurroundingCoordinates(Coordinates coordinates) {
+		return getSurroundingCoordinates(coordinates, coordinates.getZ());
+	}
+	
+	private static List<Coordinates> getSurroundingCoordinates(Coordinates coordinates, int z) {
 		int x = coordinates.getX();
 		int y = coordinates.getY();
 		List<Coordinates> surroundingCoordinates = Lists.newArrayList(
-				new Coordinates(x, y + 1, 0),
-				new Coordinates(x, y - 1, 0),
-				new Coordinates(x - 1, y, 0),
-				new Coordinates(x + 1, y, 0)
+				Coordinates.of(x, y + 1, z),
+				Coordinates.of(x, y - 1, z),
+				Coordinates.of(x - 1, y, z),
+				Coordinates.of(x + 1, y, z)
 			);
 		if (x % 2 == 0) {
-			surroundingCoordinates.add(new Coordinates(x - 1, y - 1, 0));
-			surroundingCoordinates.add(new Coordinates(x + 1, y - 1, 0));
+			surroundingCoordinates.add(Coordinates.of(x - 1, y - 1, z));
+			surroundingCoordinates.add(Coordinates.of(x + 1, y - 1, z));
 		} else {
-			surroundingCoordinates.add(new Coordinates(x - 1, y + 1, 0));
-			surroundingCoordinates.add(new Coordinates(x + 1, y + 1, 0));
+			surroundingCoordinates.add(Coordinates.of(x - 1, y + 1, z));
+			surroundingCoordinates.add(Coordinates.of(x + 1, y + 1, z));
 		}
 		return surroundingCoordinates;
 	}
 	
-	public static List<Coordinates> getSurroundingCoordinates(Coordinates coordinates) {
-		List<Coordinates> surroundingCoordinates = getSurroundingCoordinatesWithZZero(coordinates);
-		for(Coordinates surroundingCoordinate: surroundingCoordinates) {
-			surroundingCoordinate.setZ(coordinates.getZ());
+	public static int neighbourX(int x, int direction) {
+		return x + DELTA_X[direction];
+	}
+	
+	public static int neighbourY(int x, int y, int direction) {
+		return y + deltaY(x)[direction];
+	}
+	
+	/**
+	 * Writes (x, y) pairs of all six neighbours, in direction order, into the buffer.
+	 */
+	public static void getSurroundingCoordinates(int x, int y, int[] buffer) {
+		int[] deltaY = deltaY(x);
+		for (int direction = 0; direction < DIRECTIONS; direction++) {
+			buffer[2 * direction] = x + DELTA_X[direction];
+			buffer[2 * direction + 1] = y + deltaY[direction];
 		}
-		return surroundingCoordinates;
+	}
+	
+	/**
+	 * Returns direction leading from the first hex to the second one or -1 if they are not neighbours.
+	 */
+	public static int getDirection(int x1, int y1, int x2, int y2) {
+		int[] deltaY = deltaY(x1);
+		for (int direction = 0; direction < DIRECTIONS; direction++) {
+			if (x1 + DELTA_X[direction] == x2 && y1 + deltaY[direction] == y2) {
+				return direction;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns direction of the straight line of hexes leading from the first hex to the second one
+	 * or -1 if they do not lie on one line.
+	 */
+	public static int getLineDirection(int x1, int y1, int x2, int y2) {
+		// in axial coordinates (x, y - floor(x / 2)) the six lines keep one coordinate
+		// or the sum of both constant
+		int deltaQ = x2 - x1;
+		int deltaR = (y2 - (x2 >> 1)) - (y1 - (x1 >> 1));
+		if (deltaQ == 0 && deltaR != 0) {
+			return deltaR > 0 ? 0 : 3;
+		}
+		if (deltaR == 0 && deltaQ != 0) {
+			return deltaQ > 0 ? 1 : 4;
+		}
+		if (deltaQ == -deltaR && deltaQ != 0) {
+			return deltaQ > 0 ? 2 : 5;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Directions in which a ground piece can slide from a hex with the given neighbours occupied,
+	 * see {@link Board#getNeighbourMask(int, int)}.
+	 */
+	public static int getSlides(int neighbourMask) {
+		return SLIDES[neighbourMask];
+	}
+	
+	public static int rotateClockwise(int direction) {
+		return direction == DIRECTIONS - 1 ? 0 : direction + 1;
+	}
+	
+	public static int rotateCounterClockwise(int direction) {
+		return direction == 0 ? DIRECTIONS - 1 : direction - 1;
+	}
+	
+	private static int[] deltaY(int x) {
+		return (x & 1) == 0 ? DELTA_Y_FOR_EVEN_X : DELTA_Y_FOR_ODD_X;
 	}
 	
 	public static boolean areNeighbours(Coordinates hexOne, Coordinates hexTwo) {
@@ -101,6 +201,10 @@ public class BoardUtils {
 		if (coordinates == null || pieces == null) {
 			throw new IllegalArgumentException();
 		}
+		if (Board.isIndexed(pieces)) {
+			Piece top = Board.of(pieces).getTop(coordinates.getX(), coordinates.getY());
+			return top == null ? null : top.getPlayer();
+		}
 		int z = -1;
 		Player topPlayer = null;
 		for (Piece piece: pieces) {
@@ -116,6 +220,9 @@ public class BoardUtils {
 	}
 	
 	public static boolean isOccupiedWithoutZ(Coordinates coordinates, Collection<Piece> pieces) {
+		if (Board.isIndexed(pieces)) {
+			return Board.of(pieces).isOccupied(coordinates.getX(), coordinates.getY());
+		}
 		for (Piece piece: pieces) {
 			if (coordinates.getX() ==  piece.getCoordinates().getX() &&
 					coordinates.getY() == piece.getCoordinates().getY()) {
@@ -126,6 +233,9 @@ public class BoardUtils {
 	}
 	
 	public static boolean isOccupied(Coordinates coordinates, Collection<Piece> pieces) {
+		if (Board.isIndexed(pieces)) {
+			return Board.of(pieces).isOccupied(coordinates.getX(), coordinates.getY(), coordinates.getZ());
+		}
 		for (Piece piece: pieces) {
 			if (coordinates.getX() ==  piece.getCoordinates().getX() &&
 					coordinates.getY() == piece.getCoordinates().getY() &&
@@ -143,29 +253,50 @@ public class BoardUtils {
 		if (pieces == null) {
 			throw new HiveException(NULL_PIECES);
 		}
-		if (!areNeighbours(start, end)) {
+		if (start.getZ() != end.getZ()) {
 			return false;
 		}
-		if (start.getZ() != end.getZ()) {
+		int direction = getDirection(start.getX(), start.getY(), end.getX(), end.getY());
+		if (direction < 0) {
 			return false;
 		}
-		
+		if (Board.isIndexed(pieces)) {
+			return isOpenPath(start.getX(), start.getY(), start.getZ(), direction, Board.of(pieces));
+		}
+		// indexing a plain collection costs more than scanning it for the few hexes asked for
 		if (isOccupied(end, pieces)) {
 			return false;
 		}
-		for (Coordinates coordinate: getSurroundingCoordinates(start)) {
-			if (coordinate.equals(end)) {
-				continue;
-			}
-			if (!isOccupied(coordinate, pieces) && areNeighbours(coordinate, end)) {
+		for (Coordinates coordinates: getSurroundingCoordinates(start)) {
+			if (!coordinates.equals(end) && areNeighbours(coordinates, end) && !isOccupied(coordinates, pieces)) {
 				return true;
 			}
 		}
 		return false;
 	}
 	
+	public static boolean isOpenPath(int x, int y, int z, int direction, Board board) {
+		if (z == 0) {
+			int mask = board.getNeighbourMask(x, y);
+			return (mask & (1 << direction)) == 0 && (OPEN_GATES[mask] & (1 << direction)) != 0;
+		}
+		if (board.isOccupied(neighbourX(x, direction), neighbourY(x, y, direction), z)) {
+			return false;
+		}
+		return !isGateClosed(x, y, z, direction, board);
+	}
+	
 	public static boolean isPathNotBlocked(Coordinates startCoordinates, Coordinates endCoordinates, 
 			Collection<Piece> pieces) {
+		int direction = getDirection(startCoordinates.getX(), startCoordinates.getY(), 
+				endCoordinates.getX(), endCoordinates.getY());
+		if (direction >= 0 && Board.isIndexed(pieces)) {
+			if (startCoordinates.getZ() != endCoordinates.getZ()) {
+				return true;
+			}
+			return isPathNotBlocked(startCoordinates.getX(), startCoordinates.getY(), startCoordinates.getZ(), 
+					direction, Board.of(pieces));
+		}
 		List<Coordinates> startCoordinatesSurroundingCoordinates = 
 				BoardUtils.getSurroundingCoordinates(startCoordinates);
 		List<Coordinates> endCoordinatesSurroundingCoordinates =
@@ -187,28 +318,55 @@ public class BoardUtils {
 		return countIntersection != 2;
 	}
 	
+	public static boolean isPathNotBlocked(int x, int y, int z, int direction, Board board) {
+		if (z == 0) {
+			return (OPEN_GATES[board.getNeighbourMask(x, y)] & (1 << direction)) != 0;
+		}
+		return !isGateClosed(x, y, z, direction, board);
+	}
+	
+	// both hexes neighbouring the start and the end of a slide are occupied
+	private static boolean isGateClosed(int x, int y, int z, int direction, Board board) {
+		int left = rotateCounterClockwise(direction);
+		int right = rotateClockwise(direction);
+		return board.isOccupied(neighbourX(x, left), neighbourY(x, y, left), z) 
+				&& board.isOccupied(neighbourX(x, right), neighbourY(x, y, right), z);
+	}
+	
 	public static void removeMovesThatWouldBreakTheHive(Piece pieceToMove, List<Move> availableMoves, Map<Integer, Piece> pieces) {
+		Board board = Board.of(pieces);
 		Iterator<Move> iterator = availableMoves.iterator();
 		while(iterator.hasNext()) {
 			Move move = iterator.next();
-			if(isMoveBreakingTheHive(move, pieces, pieceToMove)) {
+			if(isMoveBreakingTheHive(move, board, pieceToMove)) {
 				iterator.remove();
 			}
 		}
 	}
 	
-	private static boolean isMoveBreakingTheHive(Move move, Map<Integer, Piece> pieces, Piece pieceToMove) {
-		if (move.getEnd().getZ() > 0) {
+	private static boolean isMoveBreakingTheHive(Move move, Board board, Piece pieceToMove) {
+		Coordinates end = move.getEnd();
+		if (end.getZ() > 0) {
 			return false;
 		}
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(move.getEnd());
-		for(Coordinates coordinates: surroundingCoordinates) {
-			if (!coordinates.equals(pieceToMove.getCoordinates()) && 
-				BoardUtils.isOccupied(coordinates, pieces.values())) {
-				return false;
+		return !hasNeighbourOtherThan(end.getX(), end.getY(), end.getZ(), pieceToMove.getCoordinates(), board);
+	}
+	
+	/**
+	 * Checks if there is an occupied hex (on level z) next to (x, y) other than the excluded one.
+	 */
+	public static boolean hasNeighbourOtherThan(int x, int y, int z, Coordinates excluded, Board board) {
+		for (int direction = 0; direction < DIRECTIONS; direction++) {
+			int neighbourX = neighbourX(x, direction);
+			int neighbourY = neighbourY(x, y, direction);
+			if (neighbourX == excluded.getX() && neighbourY == excluded.getY() && z == excluded.getZ()) {
+				continue;
+			}
+			if (board.isOccupied(neighbourX, neighbourY, z)) {
+				return true;
 			}
 		}
-		return true;
+		return false;
 	}
 
 	private static boolean isHiveDestroyed(List<Piece> piecesWithoutThisPiece) {
@@ -257,23 +415,7 @@ public class BoardUtils {
 	}
 
 	private static List<Coordinates> getSurroundedFreeHexes(Piece piece, List<Piece> pieces) {
-		Coordinates coordinates = piece.getCoordinates();
-		int x = coordinates.getX();
-		int y = coordinates.getY();
-		int z = coordinates.getZ();
-		List<Coordinates> potencialFreeHexes = Lists.newArrayList(
-				new Coordinates(x, y + 1, z),
-				new Coordinates(x, y - 1, z),
-				new Coordinates(x - 1, y, z),
-				new Coordinates(x + 1, y, z)
-			);
-		if (x % 2 == 0) {
-			potencialFreeHexes.add(new Coordinates(x - 1, y - 1, z));
-			potencialFreeHexes.add(new Coordinates(x + 1, y - 1, z));
-		} else {
-			potencialFreeHexes.add(new Coordinates(x - 1, y + 1, z));
-			potencialFreeHexes.add(new Coordinates(x + 1, y + 1, z));
-		}
+		List<Coordinates> potencialFreeHexes = getSurroundingCoordinates(piece.getCoordinates());
 		for (Piece potentialSurroundingPiece: pieces) {
 			potencialFreeHexes.remove(potentialSurroundingPiece.getCoordinates());
 		}
@@ -1,5 +1,6 @@
 package hive.pieces;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.Move;
 import hive.Piece;
@@ -17,138 +18,56 @@ public class GrasshopperMovement extends MovementImpl {
 	
 	public List<Move> getAvailableMoves(Piece pieceToMove, Map<Integer, Piece> pieces) {
 		validateAvailableMoves(pieceToMove, pieces);
+		Board board = Board.of(pieces);
 		
 		List<Move> availableMoves = Lists.newArrayList();
 		
-		List<MoveVector> possibleMoveVectors = getPossibleMoveVectors(pieceToMove, pieces);
-		for (MoveVector moveVector: possibleMoveVectors) {
-			availableMoves.add(getFirstEmptySpaceGoingWithTheMoveVector(pieceToMove, pieces, moveVector));
+		int x = pieceToMove.getCoordinates().getX();
+		int y = pieceToMove.getCoordinates().getY();
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			if (board.isOccupied(BoardUtils.neighbourX(x, direction), BoardUtils.neighbourY(x, y, direction))) {
+				availableMoves.add(getFirstEmptySpaceGoingInDirection(pieceToMove, board, direction));
+			}
 		}
 		
 		return availableMoves;
 	}
 
-	private Move getFirstEmptySpaceGoingWithTheMoveVector(Piece pieceToMove,
-			Map<Integer, Piece> pieces, MoveVector moveVector) {
-		Coordinates currentCoordinates = pieceToMove.getCoordinates();
-		while (true) {
-			Coordinates nextCoordinates = moveVector.nextCoordinates(currentCoordinates);
-			if (!BoardUtils.isOccupiedWithoutZ(nextCoordinates, pieces.values())) {
-				return new Move(pieceToMove.getId(), nextCoordinates);
-			}
-			currentCoordinates = nextCoordinates;
+	@Override
+	public boolean isMoveOk(Move move, Map<Integer, Piece> pieces) {
+		Piece pieceToMove = pieces.get(move.getPieceId());
+		validateAvailableMoves(pieceToMove, pieces);
+		Coordinates end = move.getEnd();
+		if (pieceToMove.getId() != move.getPieceId() || end == null || end.getZ() != 0) {
+			return false;
 		}
+		int x = pieceToMove.getCoordinates().getX();
+		int y = pieceToMove.getCoordinates().getY();
+		int direction = BoardUtils.getLineDirection(x, y, end.getX(), end.getY());
+		if (direction < 0) {
+			return false;
+		}
+		Board board = Board.of(pieces);
+		int jumpedOver = 0;
+		do {
+			y = BoardUtils.neighbourY(x, y, direction);
+			x = BoardUtils.neighbourX(x, direction);
+			jumpedOver++;
+		} while (board.isOccupied(x, y));
+		return jumpedOver > 1 && x == end.getX() && y == end.getY();
 	}
 
-	private List<MoveVector> getPossibleMoveVectors(Piece pieceToMove,
-			Map<Integer, Piece> pieces) {
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinatesWithZZero(pieceToMove.getCoordinates());
-		List<MoveVector> possibleMoveVectors = Lists.newArrayList();
-		for (Coordinates coordinates: surroundingCoordinates) {
-			if (BoardUtils.isOccupiedWithoutZ(coordinates, pieces.values())) {
-				possibleMoveVectors.add(getMoveVectorForCoordinates(pieceToMove.getCoordinates(), coordinates));
-			}
-		}
-		return possibleMoveVectors;
+	private Move getFirstEmptySpaceGoingInDirection(Piece pieceToMove, Board board, int direction) {
+		int x = pieceToMove.getCoordinates().getX();
+		int y = pieceToMove.getCoordinates().getY();
+		do {
+			y = BoardUtils.neighbourY(x, y, direction);
+			x = BoardUtils.neighbourX(x, direction);
+		} while (board.isOccupied(x, y));
+		return new Move(pieceToMove.getId(), Coordinates.of(x, y, 0));
 	}
 
 	public static GrasshopperMovement getInstance() {
 		return grasshopperMovement;
 	}
-	
-	private enum MoveVector {
-		UP, RIGHT_UP, RIGHT_DOWN, DOWN, LEFT_DOWN, LEFT_UP;
-		
-		private Coordinates nextCoordinates(Coordinates currentCoordinates) {
-			int x = currentCoordinates.getX();
-			int y = currentCoordinates.getY();
-			
-			switch (this) {
-			case UP: 
-				return new Coordinates(x, y + 1, 0);
-			case DOWN:
-				return new Coordinates(x, y - 1, 0);
-			case LEFT_UP:
-				if (x % 2 == 0) {
-					return new Coordinates(x - 1, y, 0);
-				} else {
-					return new Coordinates(x - 1, y + 1, 0);
-				}
-			case LEFT_DOWN:
-				if (x % 2 == 0) {
-					return new Coordinates(x - 1, y - 1, 0);
-				} else {
-					return new Coordinates(x - 1, y, 0);
-				}
-			case RIGHT_UP:
-				if (x % 2 == 0) {
-					return new Coordinates(x + 1, y, 0);
-				} else {
-					return new Coordinates(x + 1, y + 1, 0);
-				}
-			case RIGHT_DOWN:
-				if (x % 2 == 0) {
-					return new Coordinates(x + 1, y - 1, 0);
-				} else {
-					return new Coordinates(x + 1, y, 0);
-				}
-			}
-			return null;
-		}
-	}
-	private MoveVector getMoveVectorForCoordinates(Coordinates start, Coordinates end) {
-		int deltaX = end.getX() - start.getX();
-		int deltaY = end.getY() - start.getY();
-		
-		if (Math.abs(deltaX) > 1 || Math.abs(deltaY) > 1) {
-			return null;
-		}
-		
-		if (deltaX == 0) {
-			if (deltaY == 1) {
-				return MoveVector.UP;
-			}
-			if (deltaY == -1) {
-				return MoveVector.DOWN;
-			}
-		}
-			
-		if (deltaX == 1) {
-			if (start.getX() % 2 == 0) {
-				if (deltaY == 0) {
-					return MoveVector.RIGHT_UP;
-				}
-				if (deltaY == -1) {
-					return MoveVector.RIGHT_DOWN;
-				}
-			} else {
-				if (deltaY == 1) {
-					return MoveVector.RIGHT_UP;
-				}
-				if (deltaY == 0) {
-					return MoveVector.RIGHT_DOWN;
-				}
-			}
-		}
-		
-		if (deltaX == -1) {
-			if (start.getX() % 2 == 0) {
-				if (deltaY == 0) {
-					return MoveVector.LEFT_UP;
-				}
-				if (deltaY == -1) {
-					return MoveVector.LEFT_DOWN;
-				}
-			} else {
-				if (deltaY == 1) {
-					return MoveVector.LEFT_UP;
-				}
-				if (deltaY == 0) {
-					return MoveVector.LEFT_DOWN;
-				}
-			}
-		}
-		
-		return null;
-	}
 }
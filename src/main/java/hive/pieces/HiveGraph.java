@@ -0,0 +1,138 @@
+package hive.pieces;
+
+import static hive.pieces.BoardUtils.DIRECTIONS;
+import static hive.pieces.BoardUtils.neighbourX;
+import static hive.pieces.BoardUtils.neighbourY;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import hive.Board;
+import hive.Piece;
+
+/**
+ * Graph of occupied hexes, a stack of pieces being a single vertex.
+ */
+public class HiveGraph {
+
+	private HiveGraph() {}
+
+	/**
+	 * Finds all pieces that cannot leave the board without splitting the hive, in a single
+	 * depth first search (Hopcroft-Tarjan articulation points). Only pieces lying alone on
+	 * a hex can be pinned: taking a piece from the top of a stack leaves the hex occupied
+	 * and covered pieces are never cut vertices.
+	 */
+	public static Set<Piece> getPinnedPieces(Board board) {
+		return getPinnedPieces(board, getArticulationHexes(board));
+	}
+
+	/**
+	 * Pinned pieces given the articulation hexes of the board, which stay the same as long as no
+	 * hex gets its first piece or loses its last one: the pieces alone on one of those hexes.
+	 */
+	public static Set<Piece> getPinnedPieces(Board board, int[] articulationHexes) {
+		Set<Piece> pinnedPieces = Sets.newIdentityHashSet();
+		for (int key: articulationHexes) {
+			Piece top = board.getTop(Board.keyX(key), Board.keyY(key));
+			if (top.getCoordinates().getZ() == 0) {
+				pinnedPieces.add(top);
+			}
+		}
+		return pinnedPieces;
+	}
+
+	/**
+	 * Occupied hexes, as {@link Board#key(int, int)}, whose stacks hold the hive together.
+	 */
+	public static int[] getArticulationHexes(Board board) {
+		Set<Integer> hexes = board.getOccupiedHexes();
+		int size = hexes.size();
+		if (size < 3) {
+			return new int[0];
+		}
+
+		int[] xs = new int[size];
+		int[] ys = new int[size];
+		Map<Integer, Integer> indexes = Maps.newHashMapWithExpectedSize(size);
+		int index = 0;
+		for (Integer key: hexes) {
+			xs[index] = Board.keyX(key);
+			ys[index] = Board.keyY(key);
+			indexes.put(key, index);
+			index++;
+		}
+
+		boolean[] articulationPoints = findArticulationPoints(xs, ys, indexes);
+		int count = 0;
+		int[] articulationHexes = new int[size];
+		for (int i = 0; i < size; i++) {
+			if (articulationPoints[i]) {
+				articulationHexes[count++] = Board.key(xs[i], ys[i]);
+			}
+		}
+		return Arrays.copyOf(articulationHexes, count);
+	}
+
+	private static boolean[] findArticulationPoints(int[] xs, int[] ys, Map<Integer, Integer> indexes) {
+		int size = xs.length;
+		// discovery time 0 means not visited yet
+		int[] discovery = new int[size];
+		int[] low = new int[size];
+		int[] parent = new int[size];
+		int[] nextDirection = new int[size];
+		int[] stack = new int[size];
+		boolean[] articulationPoints = new boolean[size];
+		int time = 0;
+
+		for (int root = 0; root < size; root++) {
+			if (discovery[root] != 0) {
+				continue;
+			}
+			int rootChildren = 0;
+			int top = 0;
+			stack[top++] = root;
+			parent[root] = -1;
+			discovery[root] = low[root] = ++time;
+
+			while (top > 0) {
+				int node = stack[top - 1];
+				if (nextDirection[node] < DIRECTIONS) {
+					int direction = nextDirection[node]++;
+					Integer neighbour = indexes.get(Board.key(neighbourX(xs[node], direction),
+							neighbourY(xs[node], ys[node], direction)));
+					if (neighbour == null) {
+						continue;
+					}
+					if (discovery[neighbour] == 0) {
+						parent[neighbour] = node;
+						discovery[neighbour] = low[neighbour] = ++time;
+						stack[top++] = neighbour;
+						if (node == root) {
+							rootChildren++;
+						}
+					} else if (neighbour != parent[node]) {
+						low[node] = Math.min(low[node], discovery[neighbour]);
+					}
+				} else {
+					top--;
+					int parentNode = parent[node];
+					if (parentNode >= 0) {
+						low[parentNode] = Math.min(low[parentNode], low[node]);
+						if (parentNode != root && low[node] >= discovery[parentNode]) {
+							articulationPoints[parentNode] = true;
+						}
+					}
+				}
+			}
+			if (rootChildren > 1) {
+				articulationPoints[root] = true;
+			}
+		}
+		return articulationPoints;
+	}
+}
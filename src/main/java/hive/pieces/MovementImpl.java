@@ -4,6 +4,7 @@ import static hive.HiveExceptionCode.NULL_COORDINATES;
 import static hive.HiveExceptionCode.NULL_PIECE;
 import static hive.HiveExceptionCode.NULL_PIECES;
 import static hive.HiveExceptionCode.PIECE_NOT_ON_BOARD;
+import hive.Coordinates;
 import hive.HiveException;
 import hive.Move;
 import hive.Movement;
@@ -31,4 +32,15 @@ public abstract class MovementImpl implements Movement {
 	public boolean isMoveOk(Move move, Map<Integer, Piece> pieces) {
 		return getAvailableMoves(pieces.get(move.getPieceId()), pieces).contains(move);
 	}
+
+	/**
+	 * Checks if the move takes the piece to another hex on the same level, the only kind of
+	 * destination a sliding piece can reach.
+	 */
+	protected boolean isSlideAway(Piece pieceToMove, Move move) {
+		Coordinates start = pieceToMove.getCoordinates();
+		Coordinates end = move.getEnd();
+		return pieceToMove.getId() == move.getPieceId() && end != null && end.getZ() == start.getZ()
+				&& (end.getX() != start.getX() || end.getY() != start.getY());
+	}
 }
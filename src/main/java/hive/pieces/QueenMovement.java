@@ -1,5 +1,6 @@
 package hive.pieces;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.Move;
 import hive.Piece;
@@ -21,24 +22,20 @@ public class QueenMovement extends MovementImpl {
 
 	public List<Move> getAvailableMoves(Piece pieceToMove, Map<Integer, Piece> pieces) {
 		validateAvailableMoves(pieceToMove, pieces);
+		Board board = Board.of(pieces);
 		
 		List<Move> availableMoves = Lists.newArrayList();
 		
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(pieceToMove.getCoordinates());
-		for (Coordinates surroundingCoordinate: surroundingCoordinates) {
-			if (BoardUtils.isOpenPath(pieceToMove.getCoordinates(), surroundingCoordinate, pieces.values())) {
-				for (Coordinates surroundingCoordinates2: surroundingCoordinates) {
-					// checks if there is a not occupied neighbor that is also a surrounding hex of the queen   
-					if (surroundingCoordinate != surroundingCoordinates2 && 
-						BoardUtils.areNeighbours(surroundingCoordinate, surroundingCoordinates2) &&
-						!BoardUtils.isOccupied(surroundingCoordinates2, pieces.values())) {
-						availableMoves.add(new Move(pieceToMove.getId(), surroundingCoordinate));
-						break;
-					}
-				}
+		Coordinates coordinates = pieceToMove.getCoordinates();
+		int x = coordinates.getX();
+		int y = coordinates.getY();
+		int slides = board.getSlideTable().getSlides(x, y, coordinates);
+		for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+			if ((slides & (1 << direction)) != 0) {
+				availableMoves.add(new Move(pieceToMove.getId(), 
+						Coordinates.of(BoardUtils.neighbourX(x, direction), BoardUtils.neighbourY(x, y, direction), coordinates.getZ())));
 			}
 		}
-		BoardUtils.removeMovesThatWouldBreakTheHive(pieceToMove, availableMoves, pieces);
 		return availableMoves;
 	}
 }
@@ -0,0 +1,45 @@
+package hive.pieces;
+
+import static hive.pieces.BoardUtils.getDirection;
+import hive.Board;
+import hive.Coordinates;
+
+/**
+ * Lookup of the slides of ground pieces between empty hexes around the hive. A piece can slide to a
+ * neighbouring hex when exactly one of the two hexes flanking the slide is occupied: with both
+ * occupied the gate is too narrow (freedom to move) and with none the piece would lose touch with
+ * the hive (one hive).
+ * <p>
+ * Slides are read from a table indexed by the neighbour masks the board keeps up to date and nothing
+ * else is kept, so all ground pieces share one instance per board. The moving piece is lifted from
+ * the board by passing its coordinates, its bit is then cleared from the masks of the hexes next
+ * to it.
+ */
+public class SlideTable {
+	private final Board board;
+
+	public SlideTable(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Bit mask of directions in which a piece can slide from (x, y) with the given piece lifted.
+	 * The lifted piece's own hex counts as empty unless other pieces lie on it.
+	 */
+	public int getSlides(int x, int y, Coordinates lifted) {
+		int mask = board.getNeighbourMask(x, y);
+		if (lifted != null && board.getMaxElevation(lifted.getX(), lifted.getY()) == 0) {
+			if (x == lifted.getX() && y == lifted.getY()) {
+				return BoardUtils.getSlides(mask);
+			}
+			int direction = getDirection(x, y, lifted.getX(), lifted.getY());
+			if (direction >= 0) {
+				mask &= ~(1 << direction);
+			}
+		}
+		if (board.isOccupied(x, y, 0)) {
+			return 0;
+		}
+		return BoardUtils.getSlides(mask);
+	}
+}
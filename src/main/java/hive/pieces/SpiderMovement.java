@@ -1,17 +1,20 @@
 package hive.pieces;
 
+import hive.Board;
 import hive.Coordinates;
 import hive.Move;
 import hive.Piece;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 public class SpiderMovement extends MovementImpl {
 
+	private static final int SLIDES = 3;
 	private static SpiderMovement spiderMovement = new SpiderMovement();
 	
 	private SpiderMovement() {}
@@ -22,119 +25,81 @@ public class SpiderMovement extends MovementImpl {
 
 	public List<Move> getAvailableMoves(Piece pieceToMove, Map<Integer, Piece> pieces) {
 		validateAvailableMoves(pieceToMove, pieces);
-		
 		List<Move> availableMoves = Lists.newArrayList();
-		
-		Map<Integer, Piece> piecesWithoutSpider = Maps.newHashMap();
-		for(Integer key: pieces.keySet()) {
-			if(pieceToMove.getId() != key){
-				piecesWithoutSpider.put(key, pieces.get(key));
-			}
-		}
-		
-		List<Path> pathsAfterFirstMove = findFirstMoves(pieceToMove.getCoordinates(), pieces, piecesWithoutSpider);
-		List<Path> pathsAfterSecondMove = findSecondMoves(pieceToMove.getCoordinates(), pieces, pathsAfterFirstMove, piecesWithoutSpider);
-		List<Path> pathsAfterThirdMove = findThirdMoves(pieceToMove.getCoordinates(), pieces, pathsAfterSecondMove, piecesWithoutSpider);
-		
-		List<Coordinates> availableCoordinates = Lists.newArrayList();
-		for(Path path: pathsAfterThirdMove) {
-			if(!availableCoordinates.contains(path.third)) {
-				availableCoordinates.add(path.third);
-			}
-		}
-		for(Coordinates coordinates: availableCoordinates) {
-			availableMoves.add(new Move(pieceToMove.getId(), coordinates));
-		}
+		Coordinates coordinates = pieceToMove.getCoordinates();
+		// the start hex is never a destination, so the search does not stop early
+		search(pieceToMove, Board.of(pieces), Board.key(coordinates.getX(), coordinates.getY()), availableMoves);
 		return availableMoves;
 	}
 
-	private List<Path> findThirdMoves(Coordinates startCoordinates,
-			Map<Integer, Piece> pieces, List<Path> pathsAfterSecondMove,
-			Map<Integer, Piece> piecesWithoutSpider) {
-		List<Path> resultPaths = Lists.newArrayList();
-		for(Path path: pathsAfterSecondMove) {
-			List<Coordinates> thirdMoves = potentialCoordinates(startCoordinates, path.second, pieces, piecesWithoutSpider);
-			for(Coordinates coordinates: thirdMoves) {
-				if(!coordinates.equals(startCoordinates) && !coordinates.equals(path.first)
-						&& !coordinates.equals(path.second)) {
-					resultPaths.add(new Path(path.first, path.second, coordinates));
-				}
-			}
+	@Override
+	public boolean isMoveOk(Move move, Map<Integer, Piece> pieces) {
+		Piece pieceToMove = pieces.get(move.getPieceId());
+		validateAvailableMoves(pieceToMove, pieces);
+		if (!isSlideAway(pieceToMove, move)) {
+			return false;
 		}
-		
-		return resultPaths;
+		Coordinates end = move.getEnd();
+		return search(pieceToMove, Board.of(pieces), Board.key(end.getX(), end.getY()), null);
 	}
 
-	private List<Path> findSecondMoves(Coordinates startCoordinates, 
-			Map<Integer, Piece> pieces, List<Path> pathsAfterFirstMove,
-			Map<Integer, Piece> piecesWithoutSpider) {
-		
-		List<Path> resultPaths = Lists.newArrayList();
-		for(Path path: pathsAfterFirstMove) {
-			List<Coordinates> secondMoves = potentialCoordinates(startCoordinates, path.first, pieces, piecesWithoutSpider);
-			for(Coordinates coordinates: secondMoves) {
-				if(!coordinates.equals(startCoordinates) && !coordinates.equals(path.first)) {
-					resultPaths.add(new Path(path.first, coordinates));
+	/**
+	 * Depth first search for paths of exactly three slides that never come back to a hex already
+	 * on the path. Hexes are kept as {@link Board#key(int, int)}. Returns as soon as the target
+	 * hex is reached, moves to distinct destinations found before are added to availableMoves
+	 * unless it is null.
+	 */
+	private boolean search(Piece pieceToMove, Board board, int target, List<Move> availableMoves) {
+		SlideTable slideTable = board.getSlideTable();
+		Coordinates start = pieceToMove.getCoordinates();
+		// hexes of the current path, slides from each of them and the next direction to try
+		int[] path = new int[SLIDES];
+		int[] slides = new int[SLIDES];
+		int[] nextDirection = new int[SLIDES];
+		Set<Integer> destinations = Sets.newHashSet();
+		path[0] = Board.key(start.getX(), start.getY());
+		slides[0] = slideTable.getSlides(start.getX(), start.getY(), start);
+		int depth = 0;
+		while (depth >= 0) {
+			if (nextDirection[depth] == BoardUtils.DIRECTIONS) {
+				depth--;
+				continue;
+			}
+			int direction = nextDirection[depth]++;
+			if ((slides[depth] & (1 << direction)) == 0) {
+				continue;
+			}
+			int x = Board.keyX(path[depth]);
+			int y = Board.keyY(path[depth]);
+			int neighbourX = BoardUtils.neighbourX(x, direction);
+			int neighbourY = BoardUtils.neighbourY(x, y, direction);
+			int neighbourKey = Board.key(neighbourX, neighbourY);
+			if (isOnPath(neighbourKey, path, depth)) {
+				continue;
+			}
+			if (depth == SLIDES - 1) {
+				if (neighbourKey == target) {
+					return true;
+				}
+				if (availableMoves != null && destinations.add(neighbourKey)) {
+					availableMoves.add(new Move(pieceToMove.getId(), Coordinates.of(neighbourX, neighbourY, start.getZ())));
 				}
+				continue;
 			}
+			depth++;
+			path[depth] = neighbourKey;
+			slides[depth] = slideTable.getSlides(neighbourX, neighbourY, start);
+			nextDirection[depth] = 0;
 		}
-		
-		return resultPaths;
+		return false;
 	}
 
-	private List<Path> findFirstMoves(Coordinates startCoordinates,
-			Map<Integer, Piece> pieces, Map<Integer, Piece> piecesWithoutSpider) {
-		
-		List<Coordinates> firstMoves = potentialCoordinates(startCoordinates, startCoordinates,
-				pieces, piecesWithoutSpider);
-		List<Path> paths = Lists.newArrayList();
-		for(Coordinates coordinates: firstMoves) {
-			paths.add(new Path(coordinates));
-		}
-		return paths;
-	}
-
-	private List<Coordinates> potentialCoordinates(Coordinates spiderCoordinates,
-			Coordinates startCoordinates, Map<Integer, Piece> pieces, Map<Integer, Piece> piecesWithoutSpider) {
-		List<Coordinates> surroundingCoordinates = BoardUtils.getSurroundingCoordinates(startCoordinates);
-		List<Coordinates> potentialMovements = Lists.newArrayList();
-		for(Coordinates coordinates: surroundingCoordinates) {
-			if (BoardUtils.isOccupied(coordinates, pieces.values()) && !spiderCoordinates.equals(coordinates)) {
-				for (Coordinates coordinates2: BoardUtils.getSurroundingCoordinates(coordinates)) {
-					if (surroundingCoordinates.contains(coordinates2) && 
-							!BoardUtils.isOccupied(coordinates2, pieces.values()) &&
-							!spiderCoordinates.equals(coordinates2)) {
-						if (!potentialMovements.contains(coordinates2)) {
-							potentialMovements.add(coordinates2);
-						}
-					}
-				}
-			}
-		}
-		List<Coordinates> potentialCoordinates = Lists.newArrayList(); 
-		for(Coordinates coordinates: potentialMovements) {
-			if (BoardUtils.isPathNotBlocked(startCoordinates, coordinates, piecesWithoutSpider.values())) {
-				potentialCoordinates.add(coordinates);
+	private boolean isOnPath(int key, int[] path, int depth) {
+		for (int i = 0; i <= depth; i++) {
+			if (path[i] == key) {
+				return true;
 			}
 		}
-		return potentialCoordinates;
-	}
-	
-	private class Path {
-		Coordinates first;
-		Coordinates second;
-		Coordinates third;
-		Path (Coordinates first) {
-			this.first = first;
-		}
-		Path(Coordinates first, Coordinates second) {
-			this.first = first;
-			this.second = second;
-		}
-		Path(Coordinates first, Coordinates second, Coordinates third) {
-			this.first = first;
-			this.second = second;
-			this.third = third;
-		}
+		return false;
 	}
 }
@@ -0,0 +1,183 @@
+package hive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class BoardTest {
+
+	private Board board;
+	private Player player;
+
+	@Before
+	public void before() {
+		board = new Board();
+		player = new Player();
+	}
+
+	@Test
+	public void put_shouldIndexPieceStack() {
+		// Given
+		Piece bottom = new Piece(1, 2, -3, 0, null, null, player);
+		Piece top = new Piece(2, 2, -3, 1, null, null, player);
+
+		// When
+		board.put(2, top);
+		board.put(1, bottom);
+
+		// Then
+		assertTrue(board.isOccupied(2, -3));
+		assertTrue(board.isOccupied(2, -3, 0));
+		assertTrue(board.isOccupied(2, -3, 1));
+		assertFalse(board.isOccupied(2, -3, 2));
+		assertFalse(board.isOccupied(-3, 2));
+		assertSame(top, board.getTop(2, -3));
+		assertEquals(1, board.getMaxElevation(2, -3));
+		assertEquals(-1, board.getMaxElevation(0, 0));
+	}
+
+	@Test
+	public void getPiecesUnder_shouldListCoveredPiecesFromTheBottom() {
+		// Given
+		Piece bottom = new Piece(1, 1, 1, 0, null, null, player);
+		Piece middle = new Piece(2, 1, 1, 1, null, null, player);
+		Piece top = new Piece(3, 1, 1, 2, null, null, player);
+		board.put(3, top);
+		board.put(1, bottom);
+		board.put(2, middle);
+
+		// When
+		List<Piece> underTop = board.getPiecesUnder(top);
+		List<Piece> underBottom = board.getPiecesUnder(bottom);
+
+		// Then
+		assertEquals(3, board.getHeight(1, 1));
+		assertEquals(0, board.getHeight(1, 2));
+		assertEquals(2, underTop.size());
+		assertSame(bottom, underTop.get(0));
+		assertSame(middle, underTop.get(1));
+		assertTrue(underBottom.isEmpty());
+	}
+
+	@Test
+	public void getPlacementFrontier_shouldFollowTopsOfStacks() {
+		// Given
+		Player otherPlayer = new Player();
+		board.put(1, new Piece(1, 0, 0, 0, null, null, player));
+		board.put(2, new Piece(2, 0, 1, 0, null, null, otherPlayer));
+		Set<Integer> frontier = Sets.newHashSet(board.getPlacementFrontier(player));
+
+		// When
+		Piece beetle = new Piece(3, 0, 0, 1, null, null, otherPlayer);
+		board.put(3, beetle);
+		Set<Integer> frontierUnderBeetle = Sets.newHashSet(board.getPlacementFrontier(player));
+		Set<Integer> otherFrontierWithBeetle = Sets.newHashSet(board.getPlacementFrontier(otherPlayer));
+		board.remove(3);
+
+		// Then
+		assertEquals(Sets.newHashSet(Board.key(1, -1), Board.key(0, -1), Board.key(-1, -1)), frontier);
+		assertTrue(frontierUnderBeetle.isEmpty());
+		assertEquals(8, otherFrontierWithBeetle.size());
+		assertEquals(frontier, board.getPlacementFrontier(player));
+		assertEquals(Sets.newHashSet(Board.key(0, 2), Board.key(1, 1), Board.key(-1, 1)),
+				board.getPlacementFrontier(otherPlayer));
+	}
+
+	@Test
+	public void getNeighbourMask_shouldTrackPiecesOnTheGround() {
+		// Given
+		Piece up = new Piece(1, 0, 1, 0, null, null, player);
+		Piece down = new Piece(2, 0, -1, 0, null, null, player);
+		Piece beetle = new Piece(3, 0, -1, 1, null, null, player);
+		board.put(1, up);
+		board.put(2, down);
+		board.put(3, beetle);
+
+		// When
+		int maskWithBoth = board.getNeighbourMask(0, 0);
+		board.movePiece(beetle, new Coordinates(0, 1, 1));
+		board.movePiece(down, new Coordinates(1, 0, 0));
+		int maskAfterMoves = board.getNeighbourMask(0, 0);
+		board.remove(1);
+
+		// Then
+		assertEquals(1 << 0 | 1 << 3, maskWithBoth);
+		assertEquals(1 << 0 | 1 << 1, maskAfterMoves);
+		assertEquals(1 << 1, board.getNeighbourMask(0, 0));
+		assertEquals(1 << 4, board.getNeighbourMask(2, 1));
+	}
+
+	@Test
+	public void movePiece_shouldUpdateIndex() {
+		// Given
+		Piece piece = new Piece(1, 0, 0, 0, null, null, player);
+		board.put(1, piece);
+		int version = board.getVersion();
+
+		// When
+		board.movePiece(piece, new Coordinates(-1, 5, 0));
+
+		// Then
+		assertFalse(board.isOccupied(0, 0));
+		assertTrue(board.isOccupied(-1, 5, 0));
+		assertEquals(new Coordinates(-1, 5, 0), piece.getCoordinates());
+		assertTrue(board.getVersion() > version);
+	}
+
+	@Test
+	public void remove_shouldUnindexPiece() {
+		// Given
+		Piece bottom = new Piece(1, 0, 0, 0, null, null, player);
+		Piece top = new Piece(2, 0, 0, 1, null, null, player);
+		board.put(1, bottom);
+		board.put(2, top);
+
+		// When
+		board.remove(2);
+
+		// Then
+		assertSame(bottom, board.getTop(0, 0));
+		assertFalse(board.isOccupied(0, 0, 1));
+		board.remove(1);
+		assertNull(board.getTop(0, 0));
+		assertTrue(board.isEmpty());
+	}
+
+	@Test
+	public void of_shouldReuseBoardBehindItsValues() {
+		// Given
+		Map<Integer, Piece> pieces = Maps.newHashMap();
+		pieces.put(1, new Piece(1, 0, 0, 0, null, null, player));
+
+		// When
+		Board created = Board.of(pieces);
+
+		// Then
+		assertSame(created, Board.of(created));
+		assertSame(created, Board.of(created.values()));
+		assertTrue(Board.isIndexed(created.values()));
+		assertFalse(Board.isIndexed(pieces.values()));
+		assertTrue(created.isOccupied(0, 0, 0));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void values_shouldNotAllowToBypassIndex() {
+		// Given
+		board.put(1, new Piece(1, 0, 0, 0, null, null, player));
+
+		// When
+		board.values().clear();
+	}
+}
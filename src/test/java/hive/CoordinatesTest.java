@@ -0,0 +1,62 @@
+package hive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class CoordinatesTest {
+
+	@Test
+	public void hashCode_shouldBeConsistentWithEquals() {
+		// Given
+		Set<Coordinates> coordinates = Sets.newHashSet();
+
+		// When
+		coordinates.add(new Coordinates(1, -2, 0));
+		coordinates.add(Coordinates.of(1, -2, 0));
+		coordinates.add(new Coordinates(1, -2, 1));
+
+		// Then
+		assertEquals(2, coordinates.size());
+		assertEquals(new Coordinates(3, 4, 5).hashCode(), new Coordinates(3, 4, 5).hashCode());
+	}
+
+	@Test
+	public void of_shouldInternHexesNearOrigin() {
+		assertSame(Coordinates.of(0, 0, 0), Coordinates.of(0, 0, 0));
+		assertSame(Coordinates.of(-16, 16, 4), Coordinates.of(-16, 16, 4));
+		assertEquals(new Coordinates(100, -100, 0), Coordinates.of(100, -100, 0));
+	}
+
+	@Test
+	public void toLong_shouldBeLossless() {
+		int[] values = {0, 1, -1, 7, -8, 1000, -1000, (1 << 20) - 1, -(1 << 20)};
+		for (int x: values) {
+			for (int y: values) {
+				for (int z: values) {
+					// Given
+					Coordinates coordinates = new Coordinates(x, y, z);
+
+					// When
+					Coordinates unpacked = Coordinates.fromLong(coordinates.toLong());
+
+					// Then
+					assertEquals(coordinates, unpacked);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void toLong_shouldDifferForDifferentCoordinates() {
+		assertNotEquals(Coordinates.pack(1, 0, 0), Coordinates.pack(0, 1, 0));
+		assertNotEquals(Coordinates.pack(0, 1, 0), Coordinates.pack(0, 0, 1));
+		assertNotEquals(Coordinates.pack(-1, 0, 0), Coordinates.pack(0, -1, 0));
+	}
+}
@@ -19,6 +19,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -681,6 +683,298 @@ public class GameTest {
 		assertEquals(coordinates, piece.getCoordinates());
 	}
 	
+	///////////////////////////////////AVAILABLE MOVES////////////////
+	@Test
+	public void getAvailableMoves_shouldReturnFirstPutForEveryPieceInHand() {
+		// When
+		List<Move> availableMoves = game.getAvailableMoves();
+		
+		// Then
+		assertEquals(game.getPlayerOne().getPiecesInHand().size(), availableMoves.size());
+		for (Move move: availableMoves) {
+			assertTrue(game.getPlayerOne().getPiecesInHand().containsKey(move.getPieceId()));
+			assertEquals(new Coordinates(0, 0, 0), move.getEnd());
+		}
+	}
+	
+	@Test
+	public void getAvailableMoves_shouldBeReusedUntilNextMove() {
+		// Given
+		List<Move> availableMoves = game.getAvailableMoves();
+		
+		// When
+		List<Move> availableMovesAgain = game.getAvailableMoves();
+		game.movePiece(1, new Coordinates(0, 0, 0));
+		List<Move> availableMovesAfterMove = game.getAvailableMoves();
+		
+		// Then
+		assertSame(availableMoves, availableMovesAgain);
+		assertNotSame(availableMoves, availableMovesAfterMove);
+		assertEquals(6 * game.getPlayerTwo().getPiecesInHand().size(), availableMovesAfterMove.size());
+		for (Move move: availableMovesAfterMove) {
+			assertTrue(game.getPlayerTwo().getPiecesInHand().containsKey(move.getPieceId()));
+		}
+	}
+	
+	@Test
+	public void getAvailableMoves_shouldContainMovesOfPiecesOnBoard() {
+		// Given
+		game.movePiece(1, new Coordinates(0, 0, 0));
+		game.movePiece(12, new Coordinates(0, 1, 0));
+		Piece queen = game.getPieces().get(1);
+		
+		// When
+		List<Move> queenMoves = game.getAvailableMoves(queen);
+		
+		// Then
+		assertEquals(2, queenMoves.size());
+		assertTrue(queenMoves.contains(new Move(1, new Coordinates(-1, 0, 0))));
+		assertTrue(queenMoves.contains(new Move(1, new Coordinates(1, 0, 0))));
+		for (Move move: game.getAvailableMoves()) {
+			assertSame(game.getPlayerOne(), findPiece(move.getPieceId()).getPlayer());
+		}
+	}
+	
+	@Test
+	public void getAvailableMoves_shouldSkipPinnedPieces() {
+		// Given
+		game.movePiece(1, new Coordinates(0, 0, 0));
+		game.movePiece(12, new Coordinates(0, 1, 0));
+		game.movePiece(2, new Coordinates(0, -1, 0));
+		game.movePiece(13, new Coordinates(0, 2, 0));
+		
+		// When
+		List<Move> queenMoves = game.getAvailableMoves(game.getPieces().get(1));
+		
+		// Then
+		assertTrue(queenMoves.isEmpty());
+		assertFalse(game.getAvailableMoves(game.getPieces().get(2)).isEmpty());
+	}
+	
+	///////////////////////////////////MAKE AND UNMAKE MOVE////////////////
+	@Test
+	public void unmakeMove_shouldRestorePositionAfterEveryMove() {
+		// Given
+		Random random = new Random(3);
+		List<String> positions = Lists.newArrayList();
+		
+		// When
+		for (int ply = 0; ply < 30; ply++) {
+			List<Move> availableMoves = game.getAvailableMoves();
+			if (availableMoves.isEmpty()) {
+				break;
+			}
+			positions.add(describePosition());
+			game.makeMove(availableMoves.get(random.nextInt(availableMoves.size())));
+		}
+		
+		// Then
+		for (int ply = positions.size() - 1; ply >= 0; ply--) {
+			game.unmakeMove();
+			assertEquals(positions.get(ply), describePosition());
+		}
+		assertEquals(0, game.getPieces().size());
+	}
+	
+	@Test(expected=HiveException.class)
+	public void unmakeMove_shouldThrowWhenNoMoveWasMade() {
+		try {
+			// When
+			game.unmakeMove();
+		} catch (HiveException ex) {
+			// Then
+			assertEquals(NO_MOVE_TO_UNMAKE, ex.getHiveExceptionCode());
+			throw ex;
+		}
+		// should throw by now
+		assertTrue(false);
+	}
+	
+	@Test
+	public void copy_shouldKeepPositionAndMovesToTakeBack() {
+		// Given
+		Random random = new Random(4);
+		List<String> positions = Lists.newArrayList();
+		for (int ply = 0; ply < 30 && !game.getAvailableMoves().isEmpty(); ply++) {
+			List<Move> availableMoves = game.getAvailableMoves();
+			positions.add(describePosition());
+			game.makeMove(availableMoves.get(random.nextInt(availableMoves.size())));
+		}
+		String position = describePosition();
+		
+		// When
+		Game copy = game.copy();
+		
+		// Then
+		assertEquals(position, describePosition(copy));
+		assertEquals(game.getHash(), copy.getHash());
+		assertEquals(game.getAvailableMoves().size(), copy.getAvailableMoves().size());
+		assertTrue(copy.getAvailableMoves().containsAll(game.getAvailableMoves()));
+		for (int ply = positions.size() - 1; ply >= 0; ply--) {
+			copy.unmakeMove();
+			assertEquals(positions.get(ply), describePosition(copy));
+		}
+		assertEquals(position, describePosition());
+	}
+	
+	///////////////////////////////////HASH////////////////
+	@Test
+	public void getHash_shouldMatchHashComputedFromScratch() {
+		// Given
+		Random random = new Random(5);
+		List<Long> hashes = Lists.newArrayList();
+		
+		for (int ply = 0; ply < 30 && !game.getAvailableMoves().isEmpty(); ply++) {
+			List<Move> availableMoves = game.getAvailableMoves();
+			hashes.add(game.getHash());
+			game.makeMove(availableMoves.get(random.nextInt(availableMoves.size())));
+		}
+		long incrementalHash = game.getHash();
+		
+		// When
+		game.setPieces(new HashMap<Integer, Piece>(game.getPieces()));
+		
+		// Then
+		assertEquals(incrementalHash, game.getHash());
+		for (int ply = hashes.size() - 1; ply >= 0; ply--) {
+			game.unmakeMove();
+			assertEquals(hashes.get(ply).longValue(), game.getHash());
+		}
+	}
+	
+	@Test
+	public void setPieces_shouldKeepBoard() {
+		// Given
+		Board board = new Board();
+		
+		// When
+		game.setPieces(board);
+		game.movePiece(1, new Coordinates(0, 0, 0));
+		
+		// Then
+		assertSame(board, game.getPieces());
+		assertTrue(board.isOccupied(0, 0));
+	}
+	
+	@Test
+	public void setPieces_shouldCopyOtherMaps() {
+		// Given
+		Map<Integer, Piece> pieces = new HashMap<Integer, Piece>();
+		Piece queen = game.getPlayerOne().getPiecesInHand().remove(1);
+		queen.setCoordinates(new Coordinates(0, 0, 0));
+		pieces.put(1, queen);
+		
+		// When
+		game.setPieces(pieces);
+		pieces.remove(1);
+		
+		// Then
+		assertNotSame(pieces, game.getPieces());
+		assertEquals(queen, game.getPieces().get(1));
+		assertTrue(game.getPieces().isOccupied(0, 0));
+	}
+	
+	@Test
+	public void getHash_shouldNotDistinguishPiecesOfTheSameType() {
+		// Given
+		Game otherGame = new Game(2, new Player(), new Player());
+		
+		// When
+		game.movePiece(2, new Coordinates(0, 0, 0));
+		game.movePiece(13, new Coordinates(0, 1, 0));
+		otherGame.movePiece(3, new Coordinates(0, 0, 0));
+		otherGame.movePiece(14, new Coordinates(0, 1, 0));
+		
+		// Then
+		assertEquals(game.getHash(), otherGame.getHash());
+	}
+	
+	@Test
+	public void getHash_shouldDependOnPiecesOwnersAndSideToMove() {
+		// Given
+		long initialHash = game.getHash();
+		Game otherGame = new Game(2, new Player(), new Player());
+		
+		// When
+		game.movePiece(2, new Coordinates(0, 0, 0));
+		otherGame.movePiece(5, new Coordinates(0, 0, 0));
+		long hashAfterPut = game.getHash();
+		game.setCurrentPlayer(game.getPlayerOne());
+		
+		// Then
+		assertNotEquals(initialHash, hashAfterPut);
+		assertNotEquals(hashAfterPut, otherGame.getHash());
+		assertNotEquals(hashAfterPut, game.getHash());
+	}
+	
+	@Test
+	public void getRepetitionCount_shouldCountRepeatedPositions() {
+		// Given
+		game.movePiece(1, new Coordinates(0, 0, 0));
+		game.movePiece(12, new Coordinates(0, 1, 0));
+		
+		// When
+		game.makeMove(new Move(1, new Coordinates(1, 0, 0)));
+		game.makeMove(new Move(12, new Coordinates(1, 1, 0)));
+		game.makeMove(new Move(1, new Coordinates(0, 0, 0)));
+		game.makeMove(new Move(12, new Coordinates(0, 1, 0)));
+		
+		// Then
+		assertEquals(1, game.getRepetitionCount());
+	}
+	
+	@Test
+	public void getPiecesInHandCount_shouldFollowPutsAndTakeBacks() {
+		// Given
+		game.movePiece(2, new Coordinates(0, 0, 0));
+		game.movePiece(12, new Coordinates(0, 1, 0));
+		
+		// When
+		game.makeMove(new Move(3, new Coordinates(0, -1, 0)));
+		int antsAfterPut = game.getPiecesInHandCount(game.getPlayerOne(), PieceType.ANT);
+		game.unmakeMove();
+		
+		// Then
+		assertEquals(1, antsAfterPut);
+		assertEquals(2, game.getPiecesInHandCount(game.getPlayerOne(), PieceType.ANT));
+		assertEquals(1, game.getPiecesInHandCount(game.getPlayerOne(), PieceType.QUEEN));
+		assertEquals(0, game.getPiecesInHandCount(game.getPlayerTwo(), PieceType.QUEEN));
+		assertEquals(2, game.getPiecesInHandCount(game.getPlayerTwo(), PieceType.BEETLE));
+	}
+	
+	@Test
+	public void getType_shouldFollowMovement() {
+		// When
+		Piece queen = findPiece(1);
+		Piece beetle = findPiece(22);
+		
+		// Then
+		assertEquals(PieceType.QUEEN, queen.getType());
+		assertEquals(PieceType.BEETLE, beetle.getType());
+		assertEquals(null, new Piece(100, 0, 0, 0, null, null, game.getPlayerOne()).getType());
+	}
+	
+	private String describePosition() {
+		return describePosition(game);
+	}
+	
+	private String describePosition(Game game) {
+		return new TreeMap<Integer, Piece>(game.getPieces()).toString()
+				+ new TreeMap<Integer, Piece>(game.getPlayerOne().getPiecesInHand()).keySet()
+				+ new TreeMap<Integer, Piece>(game.getPlayerTwo().getPiecesInHand()).keySet()
+				+ (game.getCurrentPlayer() == game.getPlayerOne()) + game.getMoves();
+	}
+	
+	private Piece findPiece(int pieceId) {
+		if (game.getPieces().containsKey(pieceId)) {
+			return game.getPieces().get(pieceId);
+		}
+		if (game.getPlayerOne().getPiecesInHand().containsKey(pieceId)) {
+			return game.getPlayerOne().getPiecesInHand().get(pieceId);
+		}
+		return game.getPlayerTwo().getPiecesInHand().get(pieceId);
+	}
+	
 	private void prepareGame7thMovePlayerOneQueenOnBoardPlayerTwoQueenNotOnBoard() {
 		game = new Game(1, new Player(), new Player());
 		game.setMoves(Lists.newArrayList(
@@ -0,0 +1,59 @@
+package hive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class IntIntMapTest {
+
+	@Test
+	public void set_shouldMatchHashMapDuringRandomChanges() {
+		// Given
+		Random random = new Random(3);
+		IntIntMap map = new IntIntMap();
+		Map<Integer, Integer> expected = Maps.newHashMap();
+
+		for (int i = 0; i < 20000; i++) {
+			// When
+			int key = Board.key(random.nextInt(40) - 20, random.nextInt(40) - 20);
+			int value = random.nextInt(3) == 0 ? 0 : random.nextInt(10);
+			map.set(key, value);
+			if (value == 0) {
+				expected.remove(key);
+			} else {
+				expected.put(key, value);
+			}
+
+			// Then
+			assertEquals(expected.size(), map.size());
+			int probe = Board.key(random.nextInt(40) - 20, random.nextInt(40) - 20);
+			Integer expectedValue = expected.get(probe);
+			assertEquals(expectedValue == null ? 0 : expectedValue, map.get(probe));
+			assertEquals(expectedValue != null, map.containsKey(probe));
+		}
+		assertEquals(expected.keySet(), Sets.newHashSet(map.keySet()));
+	}
+
+	@Test
+	public void add_shouldRemoveKeyCountedDownToZero() {
+		// Given
+		IntIntMap map = new IntIntMap();
+		map.add(Board.key(0, 0), 2);
+
+		// When
+		map.add(Board.key(0, 0), -2);
+
+		// Then
+		assertFalse(map.containsKey(Board.key(0, 0)));
+		assertTrue(map.keySet().isEmpty());
+		assertEquals(0, map.size());
+	}
+}
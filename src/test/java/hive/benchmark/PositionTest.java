@@ -0,0 +1,61 @@
+package hive.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Piece;
+import hive.PieceType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PositionTest {
+
+	@Test
+	public void replay_shouldGiveGamesStillGoingOn() {
+		for (Position position: Position.values()) {
+			// Given
+			Game game = position.replay();
+
+			// When
+			boolean hasMoves = !game.getAvailableMoves().isEmpty();
+
+			// Then
+			assertFalse(position.name(), isFinished(game));
+			assertTrue(position.name(), hasMoves);
+			// no earlier position of the game was finished either
+			while (!game.getMoves().isEmpty()) {
+				game.unmakeMove();
+				assertFalse(position.name() + " after " + game.getMoves().size() + " moves", isFinished(game));
+			}
+		}
+	}
+
+	@Test
+	public void replay_shouldHaveEveryPieceTypeOnTop() {
+		for (Position position: Position.values()) {
+			// Given
+			Game game = position.replay();
+
+			// When
+			Set<PieceType> typesOnTop = EnumSet.noneOf(PieceType.class);
+			for (Piece piece: game.getPieces().values()) {
+				Coordinates coordinates = piece.getCoordinates();
+				if (game.getPieces().getTop(coordinates.getX(), coordinates.getY()) == piece) {
+					typesOnTop.add(piece.getType());
+				}
+			}
+
+			// Then
+			assertEquals(position.name(), EnumSet.allOf(PieceType.class), typesOnTop);
+		}
+	}
+
+	private boolean isFinished(Game game) {
+		return game.isQueenSurrounded(game.getPlayerOne()) || game.isQueenSurrounded(game.getPlayerTwo());
+	}
+}
@@ -0,0 +1,185 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Piece;
+import hive.Player;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class AlphaBetaSearchTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+
+	@Test
+	public void search_shouldSurroundQueen() {
+		// Given
+		Game game = new Game(1, new Player("one"), new Player("two"));
+		put(game, 1, 0, 0);
+		put(game, 12, 0, 1);
+		put(game, 2, 0, -1);
+		put(game, 3, 1, 0);
+		put(game, 7, -1, 0);
+		put(game, 13, 0, 2);
+		put(game, 14, 1, 1);
+		List<Move> moves = Lists.newArrayList();
+		for (int i = 0; i < 10; i++) {
+			moves.add(new Move(i + 1, null));
+		}
+		game.setMoves(moves);
+
+		// When
+		SearchResult result = new AlphaBetaSearch(new QueenEvaluator()).search(game, 3, 0, 0);
+
+		// Then
+		assertEquals(new Move(2, Coordinates.of(-1, 1, 0)), result.getBestMove());
+		assertTrue(result.getScore() >= AlphaBetaSearch.WIN_SCORE);
+		assertEquals(1, result.getDepth());
+	}
+
+	@Test
+	public void search_shouldLeaveGameUnchanged() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		long hash = game.getHash();
+		List<Move> availableMoves = game.getAvailableMoves();
+
+		// When
+		SearchResult result = new AlphaBetaSearch(new QueenEvaluator()).search(game, 3, 0, 0);
+
+		// Then
+		assertEquals(hash, game.getHash());
+		assertEquals(10, game.getMoves().size());
+		assertTrue(availableMoves.contains(result.getBestMove()));
+		assertEquals(3, result.getDepth());
+		assertEquals(3, result.getPrincipalVariation().size());
+		assertTrue(result.getNodes() > availableMoves.size());
+	}
+
+	@Test
+	public void search_shouldStopAtNodeBudget() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+
+		// When
+		SearchResult result = new AlphaBetaSearch(new QueenEvaluator()).search(game, AlphaBetaSearch.MAX_DEPTH, 5000, 0);
+
+		// Then
+		assertTrue(result.getBestMove() != null);
+		assertTrue(result.getNodes() <= 5000 + AlphaBetaSearch.MAX_DEPTH);
+		assertTrue(result.getDepth() < AlphaBetaSearch.MAX_DEPTH);
+	}
+
+	@Test
+	public void search_shouldScoreTheSameWithTranspositionTable() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		TranspositionTable transpositionTable = new TranspositionTable(1 << 16);
+
+		// When
+		SearchResult withoutTable = new AlphaBetaSearch(new QueenEvaluator()).search(game, 3, 0, 0);
+		SearchResult withTable = new AlphaBetaSearch(new QueenEvaluator(), transpositionTable).search(game, 3, 0, 0);
+
+		// Then
+		assertEquals(withoutTable.getScore(), withTable.getScore());
+		assertTrue(withTable.getNodes() < withoutTable.getNodes());
+		assertTrue(transpositionTable.getHits() > 0);
+	}
+
+	@Test
+	public void search_shouldScoreTheSameWithRootMoveOffset() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		AlphaBetaSearch rotated = new AlphaBetaSearch(new QueenEvaluator());
+		rotated.setRootMoveOffset(5);
+
+		// When
+		SearchResult inOrder = new AlphaBetaSearch(new QueenEvaluator()).search(game, 3, 0, 0);
+		SearchResult withOffset = rotated.search(game, 3, 0, 0);
+
+		// Then
+		assertEquals(inOrder.getScore(), withOffset.getScore());
+		assertTrue(game.getAvailableMoves().contains(withOffset.getBestMove()));
+	}
+
+	@Test
+	public void search_shouldStorePutFlagOfBestMove() {
+		// Given
+		Game start = new Game(1, new Player("one"), new Player("two"));
+		Game midgame = Perft.replay(MIDGAME);
+		midgame.makeMove(new Move(5, Coordinates.of(-2, 2, 0)));
+		TranspositionTable transpositionTable = new TranspositionTable(1 << 16);
+
+		// When
+		new AlphaBetaSearch(new QueenEvaluator(), transpositionTable).search(start, 1, 0, 0);
+		SearchResult result = new AlphaBetaSearch(new QueenEvaluator(), transpositionTable).search(midgame, 1, 0, 0);
+
+		// Then
+		long startEntry = transpositionTable.probe(start.getHash());
+		assertTrue(Moves.isPut(TranspositionTable.getMove(startEntry)));
+		long midgameEntry = transpositionTable.probe(midgame.getHash());
+		boolean put = !midgame.getPieces().containsKey(result.getBestMove().getPieceId());
+		assertEquals(put, Moves.isPut(TranspositionTable.getMove(midgameEntry)));
+		assertEquals(result.getBestMove(), Moves.toMove(TranspositionTable.getMove(midgameEntry)));
+	}
+
+	@Test
+	public void search_shouldSkipTableMoveWithWrongPutFlag() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		List<Move> availableMoves = game.getAvailableMoves();
+		Move lastMove = availableMoves.get(availableMoves.size() - 1);
+		boolean put = !game.getPieces().containsKey(lastMove.getPieceId());
+		TranspositionTable rightFlag = new TranspositionTable(1 << 10);
+		rightFlag.store(game.getHash(), 0, TranspositionTable.EXACT, 0, Moves.encode(lastMove, put));
+		TranspositionTable wrongFlag = new TranspositionTable(1 << 10);
+		wrongFlag.store(game.getHash(), 0, TranspositionTable.EXACT, 0, Moves.encode(lastMove, !put));
+
+		// When
+		SearchResult rightFlagResult = new AlphaBetaSearch(new ConstantEvaluator(), rightFlag).search(game, 1, 0, 0);
+		SearchResult wrongFlagResult = new AlphaBetaSearch(new ConstantEvaluator(), wrongFlag).search(game, 1, 0, 0);
+
+		// Then
+		// all moves score the same, the one searched first stays the best
+		assertEquals(lastMove, rightFlagResult.getBestMove());
+		assertEquals(availableMoves.get(0), wrongFlagResult.getBestMove());
+	}
+
+	@Test
+	public void search_shouldAnswerNothingWhenFirstIterationIsCancelled() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+
+		// When
+		SearchResult result = new AlphaBetaSearch(new QueenEvaluator(), null, new AtomicBoolean(true))
+				.search(game, 3, 0, 0);
+
+		// Then
+		assertEquals(0, result.getDepth());
+		assertTrue(result.getPrincipalVariation().isEmpty());
+		assertEquals(null, result.getBestMove());
+		assertEquals(10, game.getMoves().size());
+	}
+
+	private void put(Game game, int pieceId, int x, int y) {
+		Player owner = pieceId <= 11 ? game.getPlayerOne() : game.getPlayerTwo();
+		Piece piece = owner.getPiecesInHand().remove(pieceId);
+		piece.setCoordinates(Coordinates.of(x, y, 0));
+		game.getPieces().put(pieceId, piece);
+	}
+
+	private static class ConstantEvaluator implements Evaluator {
+		@Override
+		public int evaluate(Game game) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Player;
+import hive.benchmark.Position;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class BitBoardTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+
+	@Test
+	public void perft_shouldMatchGame() {
+		// Given
+		BitBoard fromStart = BitBoard.of(new Game(1, new Player(), new Player()));
+		BitBoard fromMidgame = BitBoard.of(Perft.replay(MIDGAME));
+
+		// When
+		long fromStartLeaves = Perft.perft(fromStart, 3);
+		long fromMidgameLeaves = Perft.perft(fromMidgame, 2);
+
+		// Then
+		assertEquals(23628, fromStartLeaves);
+		assertEquals(3817, fromMidgameLeaves);
+	}
+
+	@Test
+	public void getAvailableMoves_shouldMatchGameDuringRandomGames() {
+		Random random = new Random(11);
+		for (int playout = 0; playout < 20; playout++) {
+			// Given
+			Game game = new Game(1, new Player("one"), new Player("two"));
+			BitBoard board = BitBoard.of(game);
+			for (int ply = 0; ply < 120; ply++) {
+				// When
+				List<Move> expected = game.getAvailableMoves();
+				List<Move> actual = board.getAvailableMoves();
+
+				// Then
+				assertEquals(keys(expected), keys(actual));
+				assertEquals(expected.size(), actual.size());
+				if (expected.isEmpty()) {
+					break;
+				}
+				Move move = expected.get(random.nextInt(expected.size()));
+				game.makeMove(move);
+				board.makeMove(move);
+			}
+		}
+	}
+
+	@Test
+	public void getAvailableMoves_shouldMatchGameOnBenchmarkPositions() {
+		for (Position position: Position.values()) {
+			// Given
+			Game game = position.replay();
+			BitBoard board = BitBoard.of(game);
+
+			// When, Then
+			assertSameMoves(position.name(), game, board, 2);
+		}
+	}
+
+	@Test
+	public void randomMove_shouldPickAvailableMoveDuringRandomGames() {
+		Random random = new Random(5);
+		MoveList buffer = new MoveList();
+		for (int playout = 0; playout < 20; playout++) {
+			// Given
+			Game game = new Game(1, new Player("one"), new Player("two"));
+			BitBoard board = BitBoard.of(game);
+			for (int ply = 0; ply < 120; ply++) {
+				// When
+				List<Move> expected = game.getAvailableMoves();
+				int move = board.randomMove(random, buffer);
+
+				// Then
+				assertEquals(game.isQueenSurrounded(game.getPlayerOne()), board.isQueenSurrounded(0));
+				assertEquals(game.isQueenSurrounded(game.getPlayerTwo()), board.isQueenSurrounded(1));
+				if (expected.isEmpty()) {
+					assertEquals(BitBoard.NO_MOVE, move);
+					break;
+				}
+				assertTrue(expected.contains(Moves.toMove(move)));
+				game.makeMove(Moves.toMove(move));
+				board.makeMove(move);
+			}
+		}
+	}
+
+	@Test
+	public void unmakeMove_shouldRestorePosition() {
+		// Given
+		BitBoard board = BitBoard.of(Perft.replay(MIDGAME));
+		Set<Long> before = keys(board.getAvailableMoves());
+
+		// When
+		for (Move move: board.getAvailableMoves()) {
+			board.makeMove(move);
+			board.unmakeMove();
+		}
+
+		// Then
+		assertEquals(before, keys(board.getAvailableMoves()));
+		assertEquals(0, board.getCurrentPlayer());
+	}
+
+	@Test
+	public void toGame_shouldKeepPosition() {
+		// Given
+		Game game = Perft.replay(MIDGAME + ";10:0,-1,1;21:0,2,1");
+
+		// When
+		Game copy = BitBoard.of(game).toGame();
+
+		// Then
+		assertEquals(game.getHash(), copy.getHash());
+		assertEquals(game.getMoves().size(), copy.getMoves().size());
+		assertEquals(keys(game.getAvailableMoves()), keys(copy.getAvailableMoves()));
+	}
+
+	@Test
+	public void getHeight_shouldFollowWindowMovingWithHive() {
+		// Given
+		BitBoard board = BitBoard.of(Perft.replay("1:0,0,0;12:0,1,0"));
+		int originY = board.getOriginY();
+
+		// When
+		for (int y = 2; y < 60; y += 2) {
+			board.makeMove(new Move(1, Coordinates.of(0, y, 0)));
+			board.makeMove(new Move(12, Coordinates.of(0, y + 1, 0)));
+		}
+
+		// Then
+		assertEquals(1, board.getHeight(0, 58));
+		assertEquals(1, board.getHeight(0, 59));
+		assertEquals(0, board.getHeight(0, 57));
+		assertTrue(board.getOriginY() > originY);
+	}
+
+	// compares moves at every position down to the given depth, which covers perft(depth + 1)
+	private void assertSameMoves(String line, Game game, BitBoard board, int depth) {
+		List<Move> expected = game.getAvailableMoves();
+		assertEquals(line, keys(expected), keys(board.getAvailableMoves()));
+		if (depth == 0) {
+			return;
+		}
+		for (Move move: expected) {
+			game.makeMove(move);
+			board.makeMove(move);
+			assertSameMoves(line + " " + move, game, board, depth - 1);
+			board.unmakeMove();
+			game.unmakeMove();
+		}
+	}
+
+	private Set<Long> keys(Collection<Move> moves) {
+		Set<Long> keys = Sets.newHashSet();
+		for (Move move: moves) {
+			Coordinates end = move.getEnd();
+			keys.add((long) move.getPieceId() << 48 ^ Coordinates.pack(end.getX(), end.getY(), end.getZ()));
+		}
+		return keys;
+	}
+}
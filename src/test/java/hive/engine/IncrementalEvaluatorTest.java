@@ -0,0 +1,137 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Player;
+import hive.PieceType;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IncrementalEvaluatorTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+
+	@Test
+	public void evaluate_shouldMatchFreshEvaluatorDuringRandomGames() {
+		Random random = new Random(7);
+		for (int playout = 0; playout < 20; playout++) {
+			// Given
+			Game game = new Game(1, new Player("one"), new Player("two"));
+			IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(game);
+			for (int ply = 0; ply < 100; ply++) {
+				List<Move> moves = game.getAvailableMoves();
+				if (moves.isEmpty()) {
+					break;
+				}
+				Move move = moves.get(random.nextInt(moves.size()));
+
+				// When
+				game.makeMove(move);
+				if (random.nextInt(4) == 0) {
+					game.unmakeMove();
+				}
+
+				// Then
+				assertSameTerms(game, evaluator);
+			}
+		}
+	}
+
+	@Test
+	public void evaluate_shouldScoreQueenLibertiesAndPins() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(game);
+
+		// When
+		int score = evaluator.evaluate(game);
+
+		// Then
+		assertEquals(2, evaluator.getQueenLiberties(game.getPlayerOne()));
+		assertEquals(4, evaluator.getQueenLiberties(game.getPlayerTwo()));
+		assertEquals(2, evaluator.getPinnedCount(game.getPlayerOne()));
+		assertEquals(2, evaluator.getPinnedCount(game.getPlayerTwo()));
+		assertFalse(evaluator.isQueenCovered(game.getPlayerOne()));
+		assertEquals(0, evaluator.getMobility(game.getPlayerOne(), PieceType.QUEEN));
+		assertEquals(-132, score);
+	}
+
+	@Test
+	public void isQueenCovered_shouldFollowBeetleOnQueen() {
+		// Given
+		Game game = Perft.replay("1:0,0,0;12:0,1,0;10:0,-1,0;21:0,2,0;2:0,-2,0;21:0,1,1;3:0,-3,0");
+		IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(game);
+		assertFalse(evaluator.isQueenCovered(game.getPlayerOne()));
+
+		// When
+		game.makeMove(new Move(21, Coordinates.of(0, 0, 1)));
+
+		// Then
+		assertTrue(evaluator.isQueenCovered(game.getPlayerOne()));
+		assertFalse(evaluator.isQueenCovered(game.getPlayerTwo()));
+		game.unmakeMove();
+		assertFalse(evaluator.isQueenCovered(game.getPlayerOne()));
+	}
+
+	@Test
+	public void getPinnedCount_shouldFollowBeetleClimbingFromStackOntoPinnedPiece() {
+		// Given
+		Game game = Perft.replay("1:0,0,0;12:0,1,0;10:0,-1,0;21:0,2,0;2:0,-2,0;21:0,1,1;3:0,-3,0;"
+				+ "22:0,2,0;4:0,-4,0;22:0,1,2;5:0,-5,0");
+		IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(game);
+		assertEquals(5, evaluator.getPinnedCount(game.getPlayerOne()));
+
+		// When
+		game.makeMove(new Move(22, Coordinates.of(0, 0, 1)));
+
+		// Then
+		assertEquals(4, evaluator.getPinnedCount(game.getPlayerOne()));
+		assertSameTerms(game, evaluator);
+	}
+
+	@Test
+	public void detach_shouldKeepEvaluatingFromScratch() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(game);
+		evaluator.evaluate(game);
+
+		// When
+		evaluator.detach();
+		game.makeMove(game.getAvailableMoves().get(0));
+		game.makeMove(game.getAvailableMoves().get(0));
+
+		// Then
+		assertSameTerms(game, evaluator);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void evaluate_shouldRejectOtherGame() {
+		// Given
+		IncrementalEvaluator evaluator = IncrementalEvaluator.attachTo(new Game(1, new Player("one"), new Player("two")));
+
+		// When
+		evaluator.evaluate(new Game(2, new Player("one"), new Player("two")));
+	}
+
+	private void assertSameTerms(Game game, IncrementalEvaluator evaluator) {
+		IncrementalEvaluator fresh = IncrementalEvaluator.attachTo(game);
+		fresh.detach();
+		assertEquals(fresh.evaluate(game), evaluator.evaluate(game));
+		for (Player player: new Player[] {game.getPlayerOne(), game.getPlayerTwo()}) {
+			assertEquals(fresh.getQueenLiberties(player), evaluator.getQueenLiberties(player));
+			assertEquals(fresh.getPinnedCount(player), evaluator.getPinnedCount(player));
+			assertEquals(fresh.isQueenCovered(player), evaluator.isQueenCovered(player));
+			for (PieceType type: PieceType.values()) {
+				assertEquals(fresh.getMobility(player, type), evaluator.getMobility(player, type));
+			}
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
+public class LazySmpSearchTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+	// the first player surrounds the second player's queen with grasshopper 9
+	private static final String WON_IN_ONE = "11:0,0,0;12:0,1,0;4:0,-1,0;21:-1,1,0;9:-1,-1,0;22:1,1,0;4:-1,0,0;14:0,2,0";
+	private static final Function<Game, Evaluator> INCREMENTAL_EVALUATORS = new Function<Game, Evaluator>() {
+		@Override
+		public Evaluator apply(Game game) {
+			return IncrementalEvaluator.attachTo(game);
+		}
+	};
+
+	private final List<LazySmpSearch> searches = Lists.newArrayList();
+
+	@After
+	public void shutdownSearches() {
+		for (LazySmpSearch search: searches) {
+			search.shutdown();
+		}
+	}
+
+	@Test
+	public void search_shouldSurroundQueen() {
+		for (int threads = 1; threads <= 4; threads++) {
+			// Given
+			Game game = Perft.replay(WON_IN_ONE);
+
+			// When
+			SearchResult result = newSearch().search(game, threads, 3, 0);
+
+			// Then
+			assertEquals(new Move(9, Coordinates.of(1, 0, 0)), result.getBestMove());
+			assertTrue(result.getScore() >= AlphaBetaSearch.WIN_SCORE);
+			assertEquals(1, result.getDepth());
+		}
+	}
+
+	@Test
+	public void search_shouldShareTableAndLeaveGameUnchanged() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		long hash = game.getHash();
+		TranspositionTable transpositionTable = new TranspositionTable(1 << 16);
+
+		// When
+		LazySmpSearch search = new LazySmpSearch(INCREMENTAL_EVALUATORS, transpositionTable);
+		searches.add(search);
+		SearchResult result = search.search(game, 4, 3, 0);
+
+		// Then
+		assertEquals(hash, game.getHash());
+		assertEquals(10, game.getMoves().size());
+		assertTrue(game.getAvailableMoves().contains(result.getBestMove()));
+		assertEquals(3, result.getDepth());
+		assertTrue(transpositionTable.getHits() > 0);
+	}
+
+	@Test
+	public void stop_shouldCancelSearch() throws InterruptedException {
+		// Given
+		final Game game = Perft.replay(MIDGAME);
+		final LazySmpSearch search = newSearch();
+		final AtomicReference<SearchResult> result = new AtomicReference<SearchResult>();
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				result.set(search.search(game, 2, AlphaBetaSearch.MAX_DEPTH, 0));
+			}
+		};
+		thread.start();
+
+		// When
+		Thread.sleep(200);
+		long deadline = System.currentTimeMillis() + 10000;
+		while (thread.isAlive() && System.currentTimeMillis() < deadline) {
+			// the search may not have started yet
+			search.stop();
+			thread.join(100);
+		}
+
+		// Then
+		assertFalse(thread.isAlive());
+		assertTrue(result.get().getBestMove() != null);
+		assertTrue(result.get().getDepth() < AlphaBetaSearch.MAX_DEPTH);
+	}
+
+	@Test
+	public void search_shouldIgnoreStopBeforeIt() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		LazySmpSearch search = newSearch();
+		search.stop();
+
+		// When
+		SearchResult result = search.search(game, 2, 2, 0);
+
+		// Then
+		assertEquals(2, result.getDepth());
+		assertTrue(game.getAvailableMoves().contains(result.getBestMove()));
+	}
+
+	private LazySmpSearch newSearch() {
+		LazySmpSearch search = new LazySmpSearch(INCREMENTAL_EVALUATORS, new TranspositionTable(1 << 16));
+		searches.add(search);
+		return search;
+	}
+}
@@ -0,0 +1,94 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Player;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class MonteCarloTreeSearchTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+	// the first player surrounds the second player's queen with grasshopper 9
+	private static final String WON_IN_ONE = "11:0,0,0;12:0,1,0;4:0,-1,0;21:-1,1,0;9:-1,-1,0;22:1,1,0;4:-1,0,0;14:0,2,0";
+
+	private final List<MonteCarloTreeSearch> searches = Lists.newArrayList();
+
+	@After
+	public void shutdownSearches() {
+		for (MonteCarloTreeSearch search: searches) {
+			search.shutdown();
+		}
+	}
+
+	@Test
+	public void search_shouldSurroundQueen() {
+		// Given
+		Game game = Perft.replay(WON_IN_ONE);
+
+		// When
+		MonteCarloResult result = newSearch(1, MonteCarloTreeSearch.DEFAULT_EXPLORATION, 1)
+				.search(game, 3000, 0);
+
+		// Then
+		assertEquals(new Move(9, Coordinates.of(1, 0, 0)), result.getBestMove());
+		assertTrue(result.getWinRate() > 0.9);
+		assertEquals(3000, result.getPlayouts());
+	}
+
+	@Test
+	public void search_shouldShareTreeBetweenThreadsAndLeaveGameUnchanged() {
+		// Given
+		Game game = Perft.replay(MIDGAME);
+		long hash = game.getHash();
+
+		// When
+		MonteCarloResult result = newSearch(4, MonteCarloTreeSearch.DEFAULT_EXPLORATION, 1)
+				.search(game, 2000, 0);
+
+		// Then
+		assertEquals(hash, game.getHash());
+		assertEquals(10, game.getMoves().size());
+		assertTrue(game.getAvailableMoves().contains(result.getBestMove()));
+		assertEquals(2000, result.getPlayouts());
+		assertTrue(result.getNodes() > game.getAvailableMoves().size());
+	}
+
+	@Test
+	public void search_shouldStopAtTimeBudget() {
+		// Given
+		Game game = new Game(1, new Player("one"), new Player("two"));
+
+		// When
+		MonteCarloResult result = newSearch(2).search(game, 0, 100);
+
+		// Then
+		assertTrue(result.getBestMove() != null);
+		assertTrue(result.getPlayouts() > 0);
+		assertTrue(result.getElapsedNanos() < 5000000000L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void search_shouldRequireBudget() {
+		// When
+		newSearch(1).search(new Game(1, new Player("one"), new Player("two")), 0, 0);
+	}
+
+	private MonteCarloTreeSearch newSearch(int threads) {
+		return newSearch(threads, MonteCarloTreeSearch.DEFAULT_EXPLORATION, System.nanoTime());
+	}
+
+	private MonteCarloTreeSearch newSearch(int threads, double exploration, long seed) {
+		MonteCarloTreeSearch search = new MonteCarloTreeSearch(threads, exploration, seed);
+		searches.add(search);
+		return search;
+	}
+}
@@ -0,0 +1,58 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Move;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class MoveListTest {
+
+	@Test
+	public void add_shouldGrowPastCapacity() {
+		// Given
+		MoveList moveList = new MoveList(2);
+
+		// When
+		for (int i = 0; i < 100; i++) {
+			moveList.add(Moves.encode(i % 22, i, -i, 0, false));
+		}
+
+		// Then
+		assertEquals(100, moveList.size());
+		assertEquals(99, Moves.getX(moveList.get(99)));
+		assertEquals(99, Moves.getX(moveList.removeLast()));
+		assertEquals(99, moveList.size());
+	}
+
+	@Test
+	public void asList_shouldShowCurrentContent() {
+		// Given
+		MoveList moveList = new MoveList();
+		List<Move> moves = moveList.asList();
+
+		// When
+		moveList.add(Moves.encode(0, 0, 0, 0, true));
+		moveList.add(Moves.encode(11, 0, 1, 0, true));
+
+		// Then
+		assertEquals(2, moves.size());
+		assertEquals(new Move(12, Coordinates.of(0, 1, 0)), moves.get(1));
+		moveList.clear();
+		assertTrue(moves.isEmpty());
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void get_shouldRejectIndexPastSize() {
+		// Given
+		MoveList moveList = new MoveList();
+		moveList.add(Moves.encode(0, 0, 0, 0, true));
+		moveList.clear();
+
+		// When
+		moveList.get(0);
+	}
+}
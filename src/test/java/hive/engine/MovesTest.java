@@ -0,0 +1,45 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Move;
+
+import org.junit.Test;
+
+public class MovesTest {
+
+	@Test
+	public void encode_shouldKeepAllParts() {
+		// Given
+		int[][] moves = {{0, 0, 0, 0}, {21, -1, -1, 4}, {10, 1023, -1024, 7}, {5, -1024, 1023, 1}};
+
+		for (int[] move: moves) {
+			// When
+			int encoded = Moves.encode(move[0], move[1], move[2], move[3], move[0] % 2 == 1);
+
+			// Then
+			assertEquals(move[0], Moves.getPieceIndex(encoded));
+			assertEquals(move[1], Moves.getX(encoded));
+			assertEquals(move[2], Moves.getY(encoded));
+			assertEquals(move[3], Moves.getZ(encoded));
+			assertEquals(move[0] % 2 == 1, Moves.isPut(encoded));
+		}
+	}
+
+	@Test
+	public void toMove_shouldUsePieceIds() {
+		// Given
+		Move move = new Move(12, Coordinates.of(-3, 2, 1));
+
+		// When
+		int encoded = Moves.encode(move, false);
+
+		// Then
+		assertEquals(11, Moves.getPieceIndex(encoded));
+		assertFalse(Moves.isPut(encoded));
+		assertEquals(move, Moves.toMove(encoded));
+		assertTrue(Moves.isPut(Moves.encode(move, true)));
+	}
+}
@@ -0,0 +1,136 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import hive.Coordinates;
+import hive.Game;
+import hive.Move;
+import hive.Player;
+import hive.benchmark.Position;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class PerftTest {
+	private static final String MIDGAME = "1:0,0,0;12:0,1,0;2:0,-1,0;13:0,2,0;5:-1,-1,0;16:1,2,0;"
+			+ "7:1,-1,0;18:-1,2,0;10:0,-2,0;21:0,3,0";
+	// perft(3) of the benchmark positions
+	private static final Map<Position, Long> CORPUS_COUNTS = ImmutableMap.<Position, Long>builder()
+			.put(Position.OPENING_1, 104834L)
+			.put(Position.OPENING_2, 99768L)
+			.put(Position.MIDGAME_1, 313346L)
+			.put(Position.MIDGAME_2, 303321L)
+			.put(Position.ENDGAME_1, 245878L)
+			.put(Position.ENDGAME_2, 74767L)
+			.build();
+	// the first player surrounds the second player's queen with grasshopper 9
+	private static final String WON_IN_ONE = "11:0,0,0;12:0,1,0;4:0,-1,0;21:-1,1,0;9:-1,-1,0;22:1,1,0;4:-1,0,0;14:0,2,0";
+
+	@Test
+	public void perft_shouldCountFirstPuts() {
+		// Given
+		Perft perft = new Perft(new Game(1, new Player(), new Player()));
+
+		// When
+		long depthOne = perft.perft(1);
+		long depthTwo = perft.perft(2);
+
+		// Then
+		assertEquals(11, depthOne);
+		assertEquals(11 * 11 * 6, depthTwo);
+	}
+
+	@Test
+	public void perft_shouldMatchReferenceCounts() {
+		// Given
+		Perft fromStart = new Perft(new Game(1, new Player(), new Player()));
+		Perft fromMidgame = new Perft(Perft.replay(MIDGAME));
+
+		// When
+		long fromStartLeaves = fromStart.perft(3);
+		long fromMidgameLeaves = fromMidgame.perft(2);
+
+		// Then
+		assertEquals(23628, fromStartLeaves);
+		assertEquals(3817, fromMidgameLeaves);
+	}
+
+	@Test
+	public void perft_shouldMatchCorpusCounts() {
+		for (Position position: Position.values()) {
+			// Given
+			Game game = position.replay();
+
+			// When
+			long leaves = new Perft(game).perft(3);
+			long bitBoardLeaves = Perft.perft(BitBoard.of(game), 3);
+
+			// Then
+			assertEquals(position.name(), CORPUS_COUNTS.get(position).longValue(), leaves);
+			assertEquals(position.name(), leaves, bitBoardLeaves);
+		}
+	}
+
+	@Test
+	public void divide_shouldSumUpToPerft() {
+		// Given
+		Game game = Perft.replay("1:0,0,0;12:0,1,0");
+		Perft perft = new Perft(game);
+
+		// When
+		Map<Move, Long> divide = perft.divide(2);
+
+		// Then
+		long sum = 0;
+		for (long leaves: divide.values()) {
+			sum += leaves;
+		}
+		assertEquals(perft.perft(2), sum);
+		assertEquals(game.getAvailableMoves().size(), divide.size());
+	}
+
+	@Test
+	public void perft_shouldNotCountPositionsAfterEndOfGame() {
+		// Given
+		Game game = Perft.replay(WON_IN_ONE);
+		Move winningMove = new Move(9, Coordinates.of(1, 0, 0));
+		Perft perft = new Perft(game);
+
+		// When
+		Map<Move, Long> divide = perft.divide(2);
+		game.makeMove(winningMove);
+		long finishedDepthZero = perft.perft(0);
+		long finishedDepthOne = perft.perft(1);
+		long finishedDepthTwo = Perft.perft(BitBoard.of(game), 2);
+		game.unmakeMove();
+
+		// Then
+		assertTrue(game.getAvailableMoves().contains(winningMove));
+		for (Map.Entry<Move, Long> entry: divide.entrySet()) {
+			assertEquals(entry.getKey().equals(winningMove), entry.getValue() == 0);
+		}
+		assertEquals(1, finishedDepthZero);
+		assertEquals(0, finishedDepthOne);
+		assertEquals(0, finishedDepthTwo);
+		assertEquals(perft.perft(2), Perft.perft(BitBoard.of(game), 2));
+	}
+
+	@Test
+	public void perft_shouldLeaveGameUnchanged() {
+		// Given
+		Game game = Perft.replay("1:0,0,0; 12:0,1,0; 2:0,-1,0; 13:0,2,0");
+		long hash = game.getHash();
+		int movesCount = game.getMoves().size();
+
+		// When
+		new Perft(game).perft(3);
+
+		// Then
+		assertEquals(hash, game.getHash());
+		assertEquals(movesCount, game.getMoves().size());
+		assertEquals(new Coordinates(0, -1, 0), game.getPieces().get(2).getCoordinates());
+	}
+}
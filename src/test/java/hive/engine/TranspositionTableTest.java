@@ -0,0 +1,108 @@
+package hive.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TranspositionTableTest {
+
+	@Test
+	public void probe_shouldReturnStoredEntry() {
+		// Given
+		TranspositionTable table = new TranspositionTable(1000);
+		int move = Moves.encode(11, -3, 7, 1, false);
+
+		// When
+		table.store(0x123456789ABCDEFL, 5, TranspositionTable.LOWER_BOUND, -AlphaBetaSearch.MAX_SCORE, move);
+		long entry = table.probe(0x123456789ABCDEFL);
+
+		// Then
+		assertEquals(512, table.getCapacity());
+		assertEquals(5, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+		assertEquals(-AlphaBetaSearch.MAX_SCORE, TranspositionTable.getScore(entry));
+		assertEquals(move, TranspositionTable.getMove(entry));
+	}
+
+	@Test
+	public void probe_shouldMissOtherKeysOfTheSameSlot() {
+		// Given
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(1, 0, TranspositionTable.EXACT, 0, TranspositionTable.NO_MOVE);
+
+		// When
+		long otherKey = table.probe(1 + 16);
+		long emptySlot = table.probe(2);
+		long storedKey = table.probe(1);
+
+		// Then
+		assertEquals(TranspositionTable.NO_ENTRY, otherKey);
+		assertEquals(TranspositionTable.NO_ENTRY, emptySlot);
+		assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.getMove(storedKey));
+		assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+	}
+
+	@Test
+	public void store_shouldKeepDeeperResultOfTheSamePosition() {
+		// Given
+		TranspositionTable table = new TranspositionTable(16);
+		table.store(7, 6, TranspositionTable.EXACT, 40, TranspositionTable.NO_MOVE);
+
+		// When
+		table.store(7, 2, TranspositionTable.EXACT, -40, TranspositionTable.NO_MOVE);
+		table.store(7 + 16, 1, TranspositionTable.UPPER_BOUND, 10, TranspositionTable.NO_MOVE);
+
+		// Then
+		assertEquals(TranspositionTable.NO_ENTRY, table.probe(7));
+		assertEquals(10, TranspositionTable.getScore(table.probe(7 + 16)));
+		assertEquals(1.0 / 16, table.getOccupancy(), 1e-9);
+	}
+
+	@Test
+	public void probe_shouldNeverReturnEntriesOfOtherKeysWhenShared() throws InterruptedException {
+		// Given
+		final TranspositionTable table = new TranspositionTable(64);
+		final boolean[] failed = new boolean[1];
+		List<Thread> threads = Lists.newArrayList();
+		for (int thread = 0; thread < 4; thread++) {
+			final long seed = thread;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					Random random = new Random(seed);
+					for (int i = 0; i < 200000; i++) {
+						// the score is derived from the key, so an entry of another key shows up
+						long key = random.nextInt(1000) * 0x9E3779B97F4A7C15L;
+						long entry = table.probe(key);
+						if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getScore(entry) != scoreOf(key)) {
+							failed[0] = true;
+						}
+						table.store(key, random.nextInt(10), TranspositionTable.EXACT, scoreOf(key), TranspositionTable.NO_MOVE);
+					}
+				}
+			});
+		}
+
+		// When
+		for (Thread thread: threads) {
+			thread.start();
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+
+		// Then
+		assertTrue(!failed[0]);
+		assertTrue(table.getOccupancy() > 0.9);
+	}
+
+	private static int scoreOf(long key) {
+		return (int) (key >>> 44);
+	}
+}
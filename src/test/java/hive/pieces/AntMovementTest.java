@@ -2,6 +2,7 @@ package hive.pieces;
 
 import static hive.HiveExceptionCode.PLAYER_DOESNT_EXIST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import hive.Coordinates;
 import hive.HiveException;
@@ -110,6 +111,39 @@ public class AntMovementTest extends PieceTest {
 		assertTrue(availableMoves.contains(new Move(piece.getId(), new Coordinates(2, 0, 0))));
 	}
 	
+	@Test
+	public void isMoveOk_shouldAcceptEveryAvailableMove() {
+		// Given
+		prepareRedSet();
+		List<Move> availableMoves = antMovement.getAvailableMoves(piece, piecesOnBoard);
+		
+		for (Move move: availableMoves) {
+			// When
+			boolean isMoveOk = antMovement.isMoveOk(move, piecesOnBoard);
+			
+			// Then
+			assertTrue(move.toString(), isMoveOk);
+		}
+	}
+	
+	@Test
+	public void isMoveOk_shouldRejectHexesOutOfReach() {
+		// Given
+		prepareRedSet();
+		
+		// When
+		boolean isClosedHexOk = antMovement.isMoveOk(new Move(piece.getId(), new Coordinates(1, 2, 0)), piecesOnBoard);
+		boolean isOccupiedHexOk = antMovement.isMoveOk(new Move(piece.getId(), new Coordinates(0, 1, 0)), piecesOnBoard);
+		boolean isStartHexOk = antMovement.isMoveOk(new Move(piece.getId(), new Coordinates(0, -1, 0)), piecesOnBoard);
+		boolean isDetachedHexOk = antMovement.isMoveOk(new Move(piece.getId(), new Coordinates(5, 5, 0)), piecesOnBoard);
+		
+		// Then
+		assertFalse(isClosedHexOk);
+		assertFalse(isOccupiedHexOk);
+		assertFalse(isStartHexOk);
+		assertFalse(isDetachedHexOk);
+	}
+	
 	@Test(expected=HiveException.class)
 	public void getAvailableMoves_shouldThrowExceptionWhenValidateAvailableMovesThrowsException() {
 		// Given
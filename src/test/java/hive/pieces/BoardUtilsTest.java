@@ -7,12 +7,14 @@ import static hive.HiveExceptionCode.NULL_PIECES;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import hive.Board;
 import hive.Coordinates;
 import hive.HiveException;
 import hive.Piece;
 import hive.Player;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -191,6 +193,69 @@ public class BoardUtilsTest {
 		assertTrue(surroundingCoordinates.contains(new Coordinates(2, 0, 0)));
 	}
 	
+	@Test
+	public void getSurroundingCoordinates_shouldFillBufferLikeList() {
+		int[] buffer = new int[2 * BoardUtils.DIRECTIONS];
+		for (int x = -3; x <= 3; x++) {
+			for (int y = -3; y <= 3; y++) {
+				// Given
+				List<Coordinates> expected = BoardUtils.getSurroundingCoordinatesWithZZero(new Coordinates(x, y, 0));
+
+				// When
+				BoardUtils.getSurroundingCoordinates(x, y, buffer);
+
+				// Then
+				for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+					Coordinates neighbour = new Coordinates(buffer[2 * direction], buffer[2 * direction + 1], 0);
+					assertTrue(expected.contains(neighbour));
+					assertEquals(neighbour.getX(), BoardUtils.neighbourX(x, direction));
+					assertEquals(neighbour.getY(), BoardUtils.neighbourY(x, y, direction));
+					assertEquals(direction, BoardUtils.getDirection(x, y, neighbour.getX(), neighbour.getY()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getDirection_shouldReturnMinusOneForNotNeighbours() {
+		assertEquals(-1, BoardUtils.getDirection(0, 0, 0, 0));
+		assertEquals(-1, BoardUtils.getDirection(0, 0, 2, 0));
+		assertEquals(-1, BoardUtils.getDirection(1, -1, 0, -2));
+	}
+
+	@Test
+	public void getLineDirection_shouldFollowStraightLines() {
+		for (int x = -3; x <= 3; x++) {
+			for (int y = -3; y <= 3; y++) {
+				for (int direction = 0; direction < BoardUtils.DIRECTIONS; direction++) {
+					int lineX = x;
+					int lineY = y;
+					for (int distance = 1; distance <= 5; distance++) {
+						lineY = BoardUtils.neighbourY(lineX, lineY, direction);
+						lineX = BoardUtils.neighbourX(lineX, direction);
+						assertEquals(direction, BoardUtils.getLineDirection(x, y, lineX, lineY));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getLineDirection_shouldReturnMinusOneOutOfLines() {
+		assertEquals(-1, BoardUtils.getLineDirection(0, 0, 0, 0));
+		assertEquals(-1, BoardUtils.getLineDirection(0, 0, 2, 2));
+		assertEquals(-1, BoardUtils.getLineDirection(1, 0, -1, 2));
+		assertEquals(-1, BoardUtils.getLineDirection(-1, -1, 1, -3));
+	}
+
+	@Test
+	public void rotate_shouldWrapAroundDirections() {
+		assertEquals(1, BoardUtils.rotateClockwise(0));
+		assertEquals(0, BoardUtils.rotateClockwise(5));
+		assertEquals(5, BoardUtils.rotateCounterClockwise(0));
+		assertEquals(2, BoardUtils.rotateCounterClockwise(3));
+	}
+
 	@Test
 	public void areNeighbours_0x0_1x0() {
 		// Given
@@ -532,6 +597,27 @@ public class BoardUtilsTest {
 		assertEquals(false, isOpenPath6);
 	}
 	
+	@Test
+	public void isOpenPath_shouldAnswerSameForPlainAndIndexedPieces() {
+		for (List<Piece> pieces: Lists.newArrayList(prepareGreenSet(), prepareRedSet(), prepareBrownSet(),
+				prepareBlueSet(), prepareBlackSet(), preparePinkSet(), prepareBeetleSet())) {
+			// Given
+			Collection<Piece> indexed = Board.of(pieces).values();
+			for (int z = 0; z < 2; z++) {
+				Coordinates start = new Coordinates(1, 0, z);
+				for (Coordinates end: BoardUtils.getSurroundingCoordinates(start)) {
+					// When
+					boolean isOpenPath = BoardUtils.isOpenPath(start, end, pieces);
+					boolean isPathNotBlocked = BoardUtils.isPathNotBlocked(start, end, pieces);
+
+					// Then
+					assertEquals(isOpenPath, BoardUtils.isOpenPath(start, end, indexed));
+					assertEquals(isPathNotBlocked, BoardUtils.isPathNotBlocked(start, end, indexed));
+				}
+			}
+		}
+	}
+	
 	private void processIsPieceSurroundedTestSet(
 			PieceWithExpectedResultList pieceWithExpectedResultList) {
 		for (PieceWithExpectedResult pieceWithExpectedResult: 
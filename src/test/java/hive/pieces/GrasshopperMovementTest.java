@@ -207,4 +207,23 @@ public class GrasshopperMovementTest extends PieceTest {
 		assertEquals(true, isMoveTwoOk);
 		assertEquals(false, isInccorectMoveOk);
 	}
+	
+	@Test
+	public void isMoveOk_shouldRejectMovesThatAreNotJumps() {
+		// Given
+		prepareBrownSet();
+		List<Move> availableMoves = grasshopperMovement.getAvailableMoves(piece, piecesOnBoard);
+		
+		for (int x = -6; x <= 6; x++) {
+			for (int y = -6; y <= 6; y++) {
+				Move move = new Move(piece.getId(), new Coordinates(x, y, 0));
+				
+				// When
+				boolean isMoveOk = grasshopperMovement.isMoveOk(move, piecesOnBoard);
+				
+				// Then
+				assertEquals(move.toString(), availableMoves.contains(move), isMoveOk);
+			}
+		}
+	}
 }
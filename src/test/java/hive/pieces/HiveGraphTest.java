@@ -0,0 +1,115 @@
+package hive.pieces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import hive.Board;
+import hive.Piece;
+import hive.Player;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class HiveGraphTest {
+
+	private final Player player = new Player();
+
+	@Test
+	public void getPinnedPieces_shouldFindMiddleOfLine() {
+		// Given
+		Board board = new Board();
+		Piece first = addPiece(board, 0, 0, 0);
+		Piece middle = addPiece(board, 0, 1, 0);
+		Piece last = addPiece(board, 0, 2, 0);
+
+		// When
+		Set<Piece> pinnedPieces = HiveGraph.getPinnedPieces(board);
+
+		// Then
+		assertEquals(1, pinnedPieces.size());
+		assertTrue(pinnedPieces.contains(middle));
+		assertFalse(pinnedPieces.contains(first));
+		assertFalse(pinnedPieces.contains(last));
+	}
+
+	@Test
+	public void getPinnedPieces_shouldNotPinPiecesInRing() {
+		// Given
+		Board board = new Board();
+		addPiece(board, 0, 1, 0);
+		addPiece(board, 1, 0, 0);
+		addPiece(board, 1, -1, 0);
+		addPiece(board, 0, -1, 0);
+		addPiece(board, -1, -1, 0);
+		addPiece(board, -1, 0, 0);
+
+		// When
+		Set<Piece> pinnedPieces = HiveGraph.getPinnedPieces(board);
+
+		// Then
+		assertTrue(pinnedPieces.isEmpty());
+	}
+
+	@Test
+	public void getPinnedPieces_shouldNotPinStackedPieces() {
+		// Given
+		Board board = new Board();
+		addPiece(board, 0, 0, 0);
+		Piece covered = addPiece(board, 0, 1, 0);
+		Piece beetle = addPiece(board, 0, 1, 1);
+		addPiece(board, 0, 2, 0);
+
+		// When
+		Set<Piece> pinnedPieces = HiveGraph.getPinnedPieces(board);
+
+		// Then
+		assertTrue(pinnedPieces.isEmpty());
+		assertFalse(pinnedPieces.contains(covered));
+		assertFalse(pinnedPieces.contains(beetle));
+	}
+
+	@Test
+	public void getPinnedPieces_shouldAgreeWithIsHiveEssential() {
+		Random random = new Random(7);
+		for (int hive = 0; hive < 200; hive++) {
+			// Given
+			Board board = randomHive(random, 3 + random.nextInt(20));
+
+			// When
+			Set<Piece> pinnedPieces = HiveGraph.getPinnedPieces(board);
+
+			// Then
+			for (Piece piece: board.values()) {
+				boolean expected = BoardUtils.isHiveEssential(piece, board.values());
+				assertEquals(piece.toString(), expected, pinnedPieces.contains(piece));
+			}
+		}
+	}
+
+	private Board randomHive(Random random, int size) {
+		Board board = new Board();
+		List<Piece> placed = Lists.newArrayList(addPiece(board, 0, 0, 0));
+		while (placed.size() < size) {
+			Piece neighbourOf = placed.get(random.nextInt(placed.size()));
+			int direction = random.nextInt(BoardUtils.DIRECTIONS);
+			int x = BoardUtils.neighbourX(neighbourOf.getCoordinates().getX(), direction);
+			int y = BoardUtils.neighbourY(neighbourOf.getCoordinates().getX(), neighbourOf.getCoordinates().getY(), direction);
+			if (!board.isOccupied(x, y)) {
+				placed.add(addPiece(board, x, y, 0));
+			}
+		}
+		return board;
+	}
+
+	private Piece addPiece(Board board, int x, int y, int z) {
+		int id = board.size() + 1;
+		Piece piece = new Piece(id, x, y, z, null, null, player);
+		board.put(id, piece);
+		return piece;
+	}
+}
@@ -137,6 +137,24 @@ public class QueenMovementTest extends PieceTest {
 		assertTrue(availableMoves.contains(new Move(piece.getId(), new Coordinates(0, 3, 0))));
 	}
 	
+	@Test
+	public void getAvailableMoves_shouldNotLoseContactWithHiveWhileSliding() {
+		// Given
+		piecesOnBoard.put(0, piece);
+		piecesOnBoard.put(1, new Piece(1, new Coordinates(-1, 0, 0), null, null, null));
+		piecesOnBoard.put(2, new Piece(2, new Coordinates(-2, 0, 0), null, null, null));
+		piecesOnBoard.put(3, new Piece(3, new Coordinates(-2, -1, 0), null, null, null));
+		piecesOnBoard.put(4, new Piece(4, new Coordinates(-1, -2, 0), null, null, null));
+		
+		// When
+		List<Move> availableMoves = piece.getAvailableMoves(piece, piecesOnBoard);
+		
+		// Then
+		assertEquals(2, availableMoves.size());
+		assertTrue(availableMoves.contains(new Move(piece.getId(), new Coordinates(0, 1, 0))));
+		assertTrue(availableMoves.contains(new Move(piece.getId(), new Coordinates(-1, -1, 0))));
+	}
+	
 	@Test(expected=HiveException.class)
 	public void getAvailableMoves_shouldThrowExceptionWhenValidateAvailableMovesThrowsException() {
 		// Given
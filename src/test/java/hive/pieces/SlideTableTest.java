@@ -0,0 +1,91 @@
+package hive.pieces;
+
+import static org.junit.Assert.assertEquals;
+import hive.Board;
+import hive.Coordinates;
+import hive.Piece;
+import hive.Player;
+
+import org.junit.Test;
+
+public class SlideTableTest {
+	private static final int UP = 1 << 0;
+	private static final int RIGHT_UP = 1 << 1;
+	private static final int RIGHT_DOWN = 1 << 2;
+	private static final int DOWN = 1 << 3;
+	private static final int LEFT_DOWN = 1 << 4;
+	private static final int LEFT_UP = 1 << 5;
+
+	private final Player player = new Player();
+
+	@Test
+	public void getSlides_shouldSlideAlongTheHive() {
+		// Given
+		Board board = new Board();
+		addPiece(board, 0, 1, 0);
+
+		// When
+		int slides = board.getSlideTable().getSlides(0, 0, null);
+
+		// Then
+		assertEquals(RIGHT_UP | LEFT_UP, slides);
+	}
+
+	@Test
+	public void getSlides_shouldNotSlideThroughClosedGate() {
+		// Given
+		Board board = new Board();
+		addPiece(board, 0, 1, 0);
+		addPiece(board, 1, -1, 0);
+
+		// When
+		int slides = board.getSlideTable().getSlides(0, 0, null);
+
+		// Then
+		assertEquals(DOWN | LEFT_UP, slides);
+	}
+
+	@Test
+	public void getSlides_shouldLiftMovingPiece() {
+		// Given
+		Board board = new Board();
+		addPiece(board, 0, 1, 0);
+		Piece lifted = addPiece(board, 1, 0, 0);
+		SlideTable slideTable = board.getSlideTable();
+
+		// When
+		int slidesWithoutLifting = slideTable.getSlides(0, 0, null);
+		int slidesWithLifted = slideTable.getSlides(0, 0, lifted.getCoordinates());
+		int slidesFromLiftedHex = slideTable.getSlides(1, 0, lifted.getCoordinates());
+
+		// Then
+		assertEquals(RIGHT_DOWN | LEFT_UP, slidesWithoutLifting);
+		assertEquals(RIGHT_UP | LEFT_UP, slidesWithLifted);
+		assertEquals(UP | LEFT_DOWN, slidesFromLiftedHex);
+		assertEquals(RIGHT_DOWN | LEFT_UP, slideTable.getSlides(0, 0, null));
+	}
+
+	@Test
+	public void getSlides_shouldFollowBoardChanges() {
+		// Given
+		Board board = new Board();
+		Piece piece = addPiece(board, 0, 1, 0);
+		SlideTable slideTable = board.getSlideTable();
+		int slidesBefore = slideTable.getSlides(0, 0, null);
+
+		// When
+		board.movePiece(piece, Coordinates.of(1, -1, 0));
+
+		// Then
+		assertEquals(RIGHT_UP | LEFT_UP, slidesBefore);
+		assertEquals(RIGHT_UP | DOWN, slideTable.getSlides(0, 0, null));
+		assertEquals(0, slideTable.getSlides(0, 1, null));
+	}
+
+	private Piece addPiece(Board board, int x, int y, int z) {
+		int id = board.size() + 1;
+		Piece piece = new Piece(id, x, y, z, null, null, player);
+		board.put(id, piece);
+		return piece;
+	}
+}
@@ -2,6 +2,7 @@ package hive.pieces;
 
 import static hive.HiveExceptionCode.PLAYER_DOESNT_EXIST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import hive.Coordinates;
 import hive.HiveException;
@@ -95,6 +96,24 @@ public class SpiderMovementTest extends PieceTest {
 		assertTrue(availableMoves.contains(new Move(piece.getId(), new Coordinates(2, 2, 0))));
 	}
 	
+	@Test
+	public void isMoveOk_shouldAcceptOnlyDestinationsAfterThreeSlides() {
+		// Given
+		prepareInstructionSet();
+		
+		// When
+		boolean isThreeSlidesAwayOk = spiderMovement.isMoveOk(new Move(piece.getId(), new Coordinates(2, 2, 0)), piecesOnBoard);
+		boolean isOtherThreeSlidesAwayOk = spiderMovement.isMoveOk(new Move(piece.getId(), new Coordinates(-3, 1, 0)), piecesOnBoard);
+		boolean isOneSlideAwayOk = spiderMovement.isMoveOk(new Move(piece.getId(), new Coordinates(-1, 1, 0)), piecesOnBoard);
+		boolean isStartOk = spiderMovement.isMoveOk(new Move(piece.getId(), new Coordinates(-1, 2, 0)), piecesOnBoard);
+		
+		// Then
+		assertTrue(isThreeSlidesAwayOk);
+		assertTrue(isOtherThreeSlidesAwayOk);
+		assertFalse(isOneSlideAwayOk);
+		assertFalse(isStartOk);
+	}
+	
 	@Test(expected=HiveException.class)
 	public void getAvailableMoves_shouldThrowExceptionWhenValidateAvailableMovesThrowsException() {
 		// Given